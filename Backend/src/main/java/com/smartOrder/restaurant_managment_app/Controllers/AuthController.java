@@ -166,7 +166,7 @@ public class AuthController {
             userRepo.save(user);
 
             String resetUrl = "http://dine-flow.s3-website.us-east-2.amazonaws.com/reset-password?token=" + resetToken;
-            emailService.sendSimpleMessage(
+            emailService.queueSimpleMessage(
                 email,
                 "DineFlow: Password Reset Request",
                 "Click this link to reset your password: " + resetUrl + 
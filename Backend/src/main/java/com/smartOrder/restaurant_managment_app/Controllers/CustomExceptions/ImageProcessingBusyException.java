@@ -0,0 +1,31 @@
+package com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when image processing is saturated or did not finish in time.
+ * Automatically returns HTTP 503 (Service Unavailable) status when thrown.
+ */
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+public class ImageProcessingBusyException extends RuntimeException {
+
+    /**
+     * Constructs a new ImageProcessingBusyException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ImageProcessingBusyException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new ImageProcessingBusyException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of the exception
+     */
+    public ImageProcessingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,31 @@
+package com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an uploaded image is too large or not a supported image.
+ * Automatically returns HTTP 400 (Bad Request) status when thrown.
+ */
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidImageException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidImageException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public InvalidImageException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new InvalidImageException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of the exception
+     */
+    public InvalidImageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,31 @@
+package com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a bulk menu import is malformed or has an invalid row; nothing is imported.
+ * Automatically returns HTTP 400 (Bad Request) status when thrown.
+ */
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidMenuImportException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidMenuImportException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public InvalidMenuImportException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new InvalidMenuImportException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of the exception
+     */
+    public InvalidMenuImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
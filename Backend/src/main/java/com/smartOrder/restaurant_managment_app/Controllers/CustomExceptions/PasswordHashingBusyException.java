@@ -0,0 +1,23 @@
+package com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a password cannot be hashed because the bounded hashing
+ * pool is saturated or the hash did not finish in time.
+ * Automatically returns HTTP 503 (Service Unavailable) status when thrown.
+ */
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusyException extends RuntimeException {
+
+    /**
+     * Constructs a new PasswordHashingBusyException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of the exception
+     */
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,27 +1,38 @@
 package com.smartOrder.restaurant_managment_app.Controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.ImageProcessingBusyException;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.InvalidImageException;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.InvalidMenuImportException;
 import com.smartOrder.restaurant_managment_app.Models.MenuItems;
-import com.smartOrder.restaurant_managment_app.Models.Users;
-import com.smartOrder.restaurant_managment_app.Models.Users.Role;
+import com.smartOrder.restaurant_managment_app.Security.CurrentAdminResolver;
+import com.smartOrder.restaurant_managment_app.WebSockets.MenuWebSocket;
+import com.smartOrder.restaurant_managment_app.Security.CurrentAdminResolver.AdminIdentity;
 import com.smartOrder.restaurant_managment_app.repository.MenuItemRepository;
 import com.smartOrder.restaurant_managment_app.repository.UserRepo;
+import com.smartOrder.restaurant_managment_app.services.MenuBulkService;
+import com.smartOrder.restaurant_managment_app.services.MenuImageService;
+import com.smartOrder.restaurant_managment_app.services.MenuImageService.ImageVariants;
+import com.smartOrder.restaurant_managment_app.services.MenuSnapshotService;
+import com.smartOrder.restaurant_managment_app.services.MenuSnapshotService.MenuSnapshot;
+import com.smartOrder.restaurant_managment_app.services.MenuSnapshotService.SerializedPayload;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * REST controller for managing menu items.
@@ -32,30 +43,45 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/menu")
 public class MenuItemController {
-    
+
+    /** Response header carrying the public menu snapshot version */
+    static final String MENU_VERSION_HEADER = "X-Menu-Version";
+
     private final MenuItemRepository menuItemRepo;
     private final UserRepo userRepo;
-    private final Path uploadDir = Paths.get("uploads");
+    private final CurrentAdminResolver currentAdminResolver;
+    private final MenuSnapshotService menuSnapshotService;
+    private final MenuImageService menuImageService;
+    private final MenuBulkService menuBulkService;
+    private final MenuWebSocket menuWebSocket;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructs MenuItemController with required dependencies.
-     * Creates upload directory if it doesn't exist.
      *
      * @param menuItemRepo the menu item repository
      * @param userRepo the user repository
-     * @throws RuntimeException if upload directory cannot be created
+     * @param currentAdminResolver the resolver of the authenticated admin's ids
+     * @param menuSnapshotService the cache of public menu snapshots
+     * @param menuImageService the store for menu photos and their variants
+     * @param menuBulkService the bulk menu import and export service
+     * @param menuWebSocket the broadcaster of menu change events
+     * @param objectMapper the application's JSON mapper
      */
     @Autowired
-    public MenuItemController(MenuItemRepository menuItemRepo, UserRepo userRepo) {
+    public MenuItemController(MenuItemRepository menuItemRepo, UserRepo userRepo,
+                              CurrentAdminResolver currentAdminResolver,
+                              MenuSnapshotService menuSnapshotService, MenuImageService menuImageService,
+                              MenuBulkService menuBulkService, MenuWebSocket menuWebSocket,
+                              ObjectMapper objectMapper) {
         this.menuItemRepo = menuItemRepo;
         this.userRepo = userRepo;
-        try {
-            if (!Files.exists(uploadDir)) {
-                Files.createDirectories(uploadDir);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Could not create upload folder", e);
-        }
+        this.currentAdminResolver = currentAdminResolver;
+        this.menuSnapshotService = menuSnapshotService;
+        this.menuImageService = menuImageService;
+        this.menuBulkService = menuBulkService;
+        this.menuWebSocket = menuWebSocket;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -66,12 +92,12 @@ public class MenuItemController {
     @GetMapping
     public ResponseEntity<?> getAllMenuItems() {
         try {
-            Users admin = getCurrentAdmin();
+            AdminIdentity admin = getCurrentAdmin();
             if (admin == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Admin not authenticated");
             }
             
-            List<MenuItems> items = menuItemRepo.findByAdmin(admin);
+            List<MenuItems> items = menuItemRepo.findByAdminId(admin.userId());
             return ResponseEntity.ok(items);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
@@ -81,24 +107,73 @@ public class MenuItemController {
     }
     
     /**
-     * Retrieves all available menu items for public access.
-     * Filters out unavailable items.
+     * Retrieves all available menu items of every restaurant for public access.
+     * Served from the in-memory snapshot with a strong ETag, so clients
+     * revalidating with If-None-Match receive 304 Not Modified.
      *
+     * @param acceptEncoding the client's Accept-Encoding header
      * @return ResponseEntity containing list of available menu items
+     * @deprecated use {@code GET /api/menu/public/{restaurantCode}}, which only
+     *             returns one restaurant's menu
      */
+    @Deprecated
     @GetMapping("/public")
-    public ResponseEntity<?> getPublicMenu() {
+    public ResponseEntity<?> getPublicMenu(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<MenuItems> allItems = menuItemRepo.findAll();
-            List<MenuItems> availableItems = allItems.stream()
-                    .filter(MenuItems::isAvailable)
-                    .toList();
-            return ResponseEntity.ok(availableItems);
+            MenuSnapshot snapshot = menuSnapshotService.getAllRestaurantsSnapshot();
+            return servePayload(ResponseEntity.ok().header("Deprecation", "true"),
+                    snapshot.itemsPayload(), snapshot, acceptEncoding);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error fetching public menu");
         }
     }
 
+    /**
+     * Retrieves one restaurant's available menu, grouped by category.
+     * Served from the restaurant's in-memory snapshot with a strong ETag.
+     *
+     * @param restaurantCode the restaurant's public code
+     * @param acceptEncoding the client's Accept-Encoding header
+     * @return ResponseEntity containing the menu categories, or 404 for an unknown code
+     */
+    @GetMapping("/public/{restaurantCode}")
+    public ResponseEntity<?> getRestaurantPublicMenu(@PathVariable String restaurantCode,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            return menuSnapshotService.getSnapshotByCode(restaurantCode)
+                    .<ResponseEntity<?>>map(snapshot -> servePayload(ResponseEntity.ok(),
+                            snapshot.categoriesPayload(), snapshot, acceptEncoding))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Restaurant not found"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error fetching public menu");
+        }
+    }
+
+    /**
+     * Searches one restaurant's available menu by name, category and description.
+     * Query tokens match as prefixes; results come with category facet counts.
+     * Served from the in-memory index of the restaurant's snapshot.
+     *
+     * @param restaurantCode the restaurant's public code
+     * @param q the search query; blank returns every item
+     * @param category optional category to restrict the returned items to
+     * @param limit maximum number of items returned
+     * @return ResponseEntity containing the search result, or 404 for an unknown code
+     */
+    @GetMapping("/public/{restaurantCode}/search")
+    public ResponseEntity<?> searchPublicMenu(@PathVariable String restaurantCode,
+                                              @RequestParam(defaultValue = "") String q,
+                                              @RequestParam(required = false) String category,
+                                              @RequestParam(defaultValue = "50") int limit) {
+        return menuSnapshotService.getSnapshotByCode(restaurantCode)
+                .<ResponseEntity<?>>map(snapshot -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache().cachePublic())
+                        .header(MENU_VERSION_HEADER, Long.toString(snapshot.version()))
+                        .body(snapshot.searchIndex().search(q, category, Math.min(limit, 200))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Restaurant not found"));
+    }
+
     /**
      * Retrieves a specific menu item by ID for the authenticated admin.
      *
@@ -108,8 +183,8 @@ public class MenuItemController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<MenuItems> getMenuItem(@PathVariable Long id) {
-        Users admin = getCurrentAdmin();
-        MenuItems item = menuItemRepo.findByIdAndAdmin(id, admin)
+        AdminIdentity admin = getCurrentAdmin();
+        MenuItems item = menuItemRepo.findByIdAndAdminId(id, admin.userId())
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
         return ResponseEntity.ok(item);
     }
@@ -127,18 +202,17 @@ public class MenuItemController {
             @RequestPart("item") String menuItemJson,
             @RequestPart(value = "image", required = false) MultipartFile imageFile) throws IOException {
         
-        ObjectMapper objectMapper = new ObjectMapper();
         MenuItems menuItem = objectMapper.readValue(menuItemJson, MenuItems.class);
         
-        Users admin = getCurrentAdmin();
-        menuItem.setAdmin(admin);
+        AdminIdentity admin = getCurrentAdmin();
+        menuItem.setAdmin(userRepo.getReferenceById(admin.userId()));
 
         if (imageFile != null && !imageFile.isEmpty()) {
-            String filename = saveImage(imageFile);
-            menuItem.setImageUrl("/uploads/" + filename);
+            applyImage(menuItem, menuImageService.store(imageFile));
         }
 
         MenuItems savedItem = menuItemRepo.save(menuItem);
+        menuSnapshotService.rebuild(admin.restaurantId());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedItem);
     }
 
@@ -157,8 +231,8 @@ public class MenuItemController {
             @RequestPart("item") MenuItems menuItem,
             @RequestPart(value = "image", required = false) MultipartFile imageFile) throws IOException {
         
-        Users admin = getCurrentAdmin();
-        MenuItems existingItem = menuItemRepo.findByIdAndAdmin(id, admin)
+        AdminIdentity admin = getCurrentAdmin();
+        MenuItems existingItem = menuItemRepo.findByIdAndAdminId(id, admin.userId())
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
 
         existingItem.setName(menuItem.getName());
@@ -167,15 +241,16 @@ public class MenuItemController {
         existingItem.setCategory(menuItem.getCategory());
         existingItem.setAvailable(menuItem.isAvailable());
 
+        String previousImageUrl = existingItem.getImageUrl();
         if (imageFile != null && !imageFile.isEmpty()) {
-            if (existingItem.getImageUrl() != null) {
-                deleteImage(existingItem.getImageUrl());
-            }
-            String filename = saveImage(imageFile);
-            existingItem.setImageUrl("/uploads/" + filename);
+            applyImage(existingItem, menuImageService.store(imageFile));
         }
 
         MenuItems updatedItem = menuItemRepo.save(existingItem);
+        menuSnapshotService.rebuild(admin.restaurantId());
+        if (previousImageUrl != null && !previousImageUrl.equals(updatedItem.getImageUrl())) {
+            menuImageService.deleteIfUnused(previousImageUrl);
+        }
         return ResponseEntity.ok(updatedItem);
     }
 
@@ -187,18 +262,119 @@ public class MenuItemController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMenuItem(@PathVariable Long id) {
-        Users admin = getCurrentAdmin();
-        MenuItems item = menuItemRepo.findByIdAndAdmin(id, admin)
+        AdminIdentity admin = getCurrentAdmin();
+        MenuItems item = menuItemRepo.findByIdAndAdminId(id, admin.userId())
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
 
-        if (item.getImageUrl() != null) {
-            deleteImage(item.getImageUrl());
-        }
-
         menuItemRepo.delete(item);
+        menuSnapshotService.rebuild(admin.restaurantId());
+        menuImageService.deleteIfUnused(item.getImageUrl());
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Imports menu items from an uploaded CSV or JSON file, with an optional zip
+     * archive of images referenced by file name from the rows' image column.
+     * Parts are limited by the container's multipart size limits; larger imports
+     * are sent as one zip archive with {@link #bulkImportArchive}.
+     *
+     * @param items the CSV or JSON file
+     * @param images optional zip archive of item images
+     * @return ResponseEntity containing the number of imported items
+     * @throws IOException if the upload cannot be read
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Integer>> bulkImport(
+            @RequestPart("items") MultipartFile items,
+            @RequestPart(value = "images", required = false) MultipartFile images) throws IOException {
+        AdminIdentity admin = getCurrentAdmin();
+        Map<String, ImageVariants> storedImages = Map.of();
+        if (images != null && !images.isEmpty()) {
+            try (InputStream in = images.getInputStream()) {
+                storedImages = menuBulkService.storeImages(in);
+            }
+        }
+        boolean csv = isCsv(items.getContentType())
+                || (items.getOriginalFilename() != null
+                    && items.getOriginalFilename().toLowerCase(Locale.ROOT).endsWith(".csv"));
+        int imported;
+        try (InputStream in = items.getInputStream()) {
+            imported = menuBulkService.importItems(in, csv, admin.userId(), storedImages);
+        } catch (RuntimeException | IOException e) {
+            // The import rolled back, so images stored only for it would be orphaned
+            menuBulkService.discardImages(storedImages);
+            throw e;
+        }
+        menuSnapshotService.rebuild(admin.restaurantId());
+        return ResponseEntity.ok(Map.of("imported", imported));
+    }
+
+    /**
+     * Imports menu items from a zip archive request body holding an
+     * {@code items.csv} or {@code items.json} file and the images its rows refer
+     * to. The body is streamed entry by entry, each entry limited in size while
+     * it is read, so large imports bypass the container's multipart limits.
+     *
+     * @param body the archive
+     * @return ResponseEntity containing the number of imported items
+     * @throws IOException if the archive cannot be read
+     */
+    @PostMapping(value = "/bulk", consumes = "application/zip")
+    public ResponseEntity<Map<String, Integer>> bulkImportArchive(InputStream body) throws IOException {
+        AdminIdentity admin = getCurrentAdmin();
+        MenuBulkService.ImportArchive archive = menuBulkService.unpackArchive(body);
+        int imported;
+        try (InputStream in = Files.newInputStream(archive.items())) {
+            imported = menuBulkService.importItems(in, archive.csv(), admin.userId(), archive.images());
+        } catch (RuntimeException | IOException e) {
+            menuBulkService.discardImages(archive.images());
+            throw e;
+        } finally {
+            Files.deleteIfExists(archive.items());
+        }
+        menuSnapshotService.rebuild(admin.restaurantId());
+        return ResponseEntity.ok(Map.of("imported", imported));
+    }
+
+    /**
+     * Imports menu items from a CSV or JSON request body.
+     *
+     * @param contentType the body's content type
+     * @param body the request body
+     * @return ResponseEntity containing the number of imported items
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Map<String, Integer>> bulkImportStream(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        AdminIdentity admin = getCurrentAdmin();
+        int imported = menuBulkService.importItems(body, isCsv(contentType), admin.userId(), Map.of());
+        menuSnapshotService.rebuild(admin.restaurantId());
+        return ResponseEntity.ok(Map.of("imported", imported));
+    }
+
+    /**
+     * Streams the authenticated admin's menu as CSV or JSON, in the import format.
+     *
+     * @param format either csv or json
+     * @param response the HTTP response to stream into
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping("/export")
+    public void exportMenu(@RequestParam(defaultValue = "csv") String format,
+                           HttpServletResponse response) throws IOException {
+        AdminIdentity admin = getCurrentAdmin();
+        if (format.equalsIgnoreCase("json")) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"menu.json\"");
+            menuBulkService.exportJson(admin.userId(), response.getOutputStream());
+        } else {
+            response.setContentType("text/csv; charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"menu.csv\"");
+            menuBulkService.exportCsv(admin.userId(), response.getOutputStream());
+        }
+    }
+
     /**
      * Retrieves menu items by category for the authenticated admin.
      *
@@ -207,86 +383,155 @@ public class MenuItemController {
      */
     @GetMapping("/category/{category}")
     public ResponseEntity<List<MenuItems>> getMenuItemsByCategory(@PathVariable String category) {
-        Users admin = getCurrentAdmin();
-        List<MenuItems> items = menuItemRepo.findByAdminAndCategory(admin, category);
+        AdminIdentity admin = getCurrentAdmin();
+        List<MenuItems> items = menuItemRepo.findByAdminIdAndCategory(admin.userId(), category);
         return ResponseEntity.ok(items);
     }
 
     /**
      * Toggles the availability status of a menu item.
+     * The item is patched into the public menu snapshot and the change is
+     * broadcast on /topic/r/{restaurantId}/menu.
      *
      * @param id the menu item ID
      * @return ResponseEntity containing the updated menu item
      */
     @PatchMapping("/{id}/availability")
     public ResponseEntity<MenuItems> toggleAvailability(@PathVariable Long id) {
-        Users admin = getCurrentAdmin();
-        MenuItems item = menuItemRepo.findByIdAndAdmin(id, admin)
+        AdminIdentity admin = getCurrentAdmin();
+        MenuItems item = menuItemRepo.findByIdAndAdminId(id, admin.userId())
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
 
         item.setAvailable(!item.isAvailable());
         MenuItems updatedItem = menuItemRepo.save(item);
+        long version = menuSnapshotService.applyAvailability(admin.restaurantId(), updatedItem);
+        menuWebSocket.notifyAvailabilityChange(admin.restaurantId(), updatedItem.getId(),
+                updatedItem.isAvailable(), version);
         return ResponseEntity.ok(updatedItem);
     }
 
     /**
-     * Retrieves the currently authenticated admin user.
+     * Writes a pre-serialized menu payload, choosing the gzip variant when the
+     * client accepts it. Each encoding gets its own strong ETag, and the
+     * snapshot version is sent so clients can order it against menu events.
      *
-     * @return the authenticated admin user
-     * @throws RuntimeException if user is not authenticated or not an admin
+     * @param response the response builder to complete
+     * @param payload the pre-serialized payload
+     * @param snapshot the snapshot the payload belongs to
+     * @param acceptEncoding the client's Accept-Encoding header
+     * @return the response carrying the payload bytes
      */
-    private Users getCurrentAdmin() {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth == null || !auth.isAuthenticated()) {
-                throw new RuntimeException("Not authenticated");
-            }
-            
-            String username = auth.getName();
-            Users user = userRepo.findByUsername(username);
-            
-            if (user == null) {
-                throw new RuntimeException("User not found");
+    private ResponseEntity<byte[]> servePayload(ResponseEntity.BodyBuilder response, SerializedPayload payload,
+                                                MenuSnapshot snapshot, String acceptEncoding) {
+        String etag = snapshot.etag();
+        response.contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(MENU_VERSION_HEADER, Long.toString(snapshot.version()));
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .eTag(etag.substring(0, etag.length() - 1) + "-gzip\"")
+                    .body(payload.gzip());
+        }
+        return response.eTag(etag).body(payload.json());
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows gzip.
+     *
+     * @param acceptEncoding the header value, may be null
+     * @return true if gzip (or any encoding) is accepted with a non-zero quality
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
             }
-            
-            if (user.getRole() != Role.ADMIN){
-                throw new RuntimeException("User is not an admin");
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.matches("q=0(\\.0*)?")) {
+                    return false;
+                }
             }
-            
-            return user;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the ids of the currently authenticated admin.
+     * No Users entity is loaded; see {@link CurrentAdminResolver}.
+     *
+     * @return the authenticated admin's identity
+     * @throws RuntimeException if user is not authenticated or not an admin
+     */
+    private AdminIdentity getCurrentAdmin() {
+        try {
+            return currentAdminResolver.currentAdmin();
         } catch (Exception e) {
             throw new RuntimeException("Failed to get current admin: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Saves an uploaded image file to the uploads directory.
+     * Rejects uploads that are not supported images.
      *
-     * @param imageFile the image file to save
-     * @return the generated filename
-     * @throws IOException if file saving fails
+     * @param e the validation failure
+     * @return ResponseEntity with status 400 and the reason
      */
-    private String saveImage(MultipartFile imageFile) throws IOException {
-        String originalFilename = imageFile.getOriginalFilename();
-        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String filename = UUID.randomUUID() + extension;
-        Path filePath = uploadDir.resolve(filename);
-        Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        return filename;
+    @ExceptionHandler(InvalidImageException.class)
+    public ResponseEntity<String> handleInvalidImage(InvalidImageException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
 
     /**
-     * Deletes an image file from the uploads directory.
+     * Rejects bulk imports with an invalid row.
      *
-     * @param imageUrl the image URL containing the filename
-     * @throws RuntimeException if file deletion fails
+     * @param e the validation failure
+     * @return ResponseEntity with status 400 and the reason
      */
-    private void deleteImage(String imageUrl) {
-        try {
-            Path filePath = uploadDir.resolve(imageUrl.replace("/uploads/", ""));
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to delete image file", e);
-        }
+    @ExceptionHandler(InvalidMenuImportException.class)
+    public ResponseEntity<String> handleInvalidImport(InvalidMenuImportException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    /**
+     * Asks the client to retry when image processing is saturated.
+     *
+     * @param e the processing failure
+     * @return ResponseEntity with status 503 and the reason
+     */
+    @ExceptionHandler(ImageProcessingBusyException.class)
+    public ResponseEntity<String> handleBusyImageProcessing(ImageProcessingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(e.getMessage());
+    }
+
+    /**
+     * Checks whether a content type denotes CSV.
+     *
+     * @param contentType the content type, may be null
+     * @return true for text/csv
+     */
+    private boolean isCsv(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv");
+    }
+
+    /**
+     * Points a menu item at a stored image and its variants.
+     *
+     * @param item the menu item to update
+     * @param variants the stored image variants
+     */
+    private void applyImage(MenuItems item, ImageVariants variants) {
+        item.setImageUrl(variants.fullUrl());
+        item.setMediumImageUrl(variants.mediumUrl());
+        item.setThumbnailUrl(variants.thumbnailUrl());
     }
 }
\ No newline at end of file
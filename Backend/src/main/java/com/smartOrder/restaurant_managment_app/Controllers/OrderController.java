@@ -2,8 +2,11 @@ package com.smartOrder.restaurant_managment_app.Controllers;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -19,12 +22,18 @@ import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.NoOr
 import com.smartOrder.restaurant_managment_app.Models.Order;
 import com.smartOrder.restaurant_managment_app.Models.OrderedItems;
 import com.smartOrder.restaurant_managment_app.Models.Stats;
+import com.smartOrder.restaurant_managment_app.Security.CurrentAdminResolver;
 import com.smartOrder.restaurant_managment_app.WebSockets.OrderWebSocket;
 import com.smartOrder.restaurant_managment_app.repository.OrderRepository;
 import com.smartOrder.restaurant_managment_app.repository.StatsSummaryRepository;
+import com.smartOrder.restaurant_managment_app.services.ColumnarSalesStore;
+import com.smartOrder.restaurant_managment_app.services.ColumnarSalesStore.Dimension;
+import com.smartOrder.restaurant_managment_app.services.DailyItemRollupService;
+import com.smartOrder.restaurant_managment_app.services.DailyStatsService;
+import com.smartOrder.restaurant_managment_app.services.ItemDailySalesService;
 import com.smartOrder.restaurant_managment_app.services.OrderService;  // NEW IMPORT
 import com.smartOrder.restaurant_managment_app.services.SaleByCategoryService;
-import com.smartOrder.restaurant_managment_app.services.StatsCalculationService;
+import com.smartOrder.restaurant_managment_app.services.SalesAggregator.TopSellingItem;
 import com.smartOrder.restaurant_managment_app.services.TopSellingItemsService;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -37,6 +46,9 @@ import jakarta.servlet.http.HttpServletRequest;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    /** Longest date range accepted by the range reports */
+    private static final int MAX_RANGE_DAYS = 1098;
+
     @Autowired
     private OrderRepository orderRepo;
     
@@ -56,7 +68,19 @@ public class OrderController {
     private TableController tableController;
    
     @Autowired
-    private StatsCalculationService statsCalculationService;
+    private DailyItemRollupService dailyItemRollupService;
+    
+    @Autowired
+    private DailyStatsService dailyStatsService;
+    
+    @Autowired
+    private ItemDailySalesService itemDailySalesService;
+    
+    @Autowired
+    private ColumnarSalesStore columnarSalesStore;
+    
+    @Autowired
+    private CurrentAdminResolver currentAdminResolver;
     
     // NEW: Add OrderService for automatic stats updates
     @Autowired
@@ -259,14 +283,15 @@ public class OrderController {
         }
     }
     
+    /**
+     * Returns one day's stats. Reads never write; use refresh-stats to recalculate.
+     */
     @GetMapping("/daily/{date}")
     public ResponseEntity<Stats> getStatsForDate(
         @PathVariable("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
         HttpServletRequest request) {   
         try {
-            Stats freshStats = statsCalculationService.calculateStatsFromData(date);
-            
-            return ResponseEntity.ok(freshStats);
+            return ResponseEntity.ok(dailyStatsService.statsFor(date));
             
         } catch (Exception e) {
            
@@ -275,6 +300,28 @@ public class OrderController {
         }
     }
     
+    /**
+     * Returns the stats of every day of an inclusive date range, in date order.
+     * Closed days come from their persisted summaries; only missing days and
+     * today are calculated.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStatsForRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Expected from <= to"));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Range is limited to " + MAX_RANGE_DAYS + " days"));
+        }
+        try {
+            return ResponseEntity.ok(dailyStatsService.statsBetween(from, to));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Manual refresh endpoint for immediate stats recalculation
      */
@@ -282,7 +329,9 @@ public class OrderController {
     public ResponseEntity<Map<String, Object>> refreshStatsForDate(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         try {
             Stats freshStats = orderService.recalculateStatsForDate(date);
-            List<Map<String, Object>> topItems = topSellingItemsService.calculateTopSellingItems(date);
+            Long restaurantId = currentAdminResolver.currentAdmin().restaurantId();
+            itemDailySalesService.rebuild(restaurantId, date, date);
+            List<TopSellingItem> topItems = topSellingItemsService.calculateTopSellingItems(restaurantId, date);
             
             Map<String, Object> response = new HashMap<>();
             response.put("stats", freshStats);
@@ -299,15 +348,82 @@ public class OrderController {
         }
     }
     
+    /**
+     * Rebuilds the admin's restaurant daily item sales from order history for an
+     * inclusive date range, one month per transaction.
+     */
+    @PostMapping("/item-sales/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildItemSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Expected from <= to within " + MAX_RANGE_DAYS + " days"));
+        }
+        int rows = itemDailySalesService.rebuild(currentAdminResolver.currentAdmin().restaurantId(), from, to);
+        return ResponseEntity.ok(Map.of("rows", rows, "timestamp", LocalDateTime.now()));
+    }
+    
     @GetMapping("/top-items/{date}")
-    public List<Map<String, Object>> getTopSellingItems(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return topSellingItemsService.calculateTopSellingItems(date);
+    public List<TopSellingItem> getTopSellingItems(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return topSellingItemsService.calculateTopSellingItems(currentAdminResolver.currentAdmin().restaurantId(), date);
+    }
+
+    /**
+     * Ranks the best-selling items over an inclusive date range from daily rollups.
+     */
+    @GetMapping("/top-items")
+    public ResponseEntity<?> getTopSellingItemsForRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "6") int k) {
+        if (from.isAfter(to) || k < 1 || k > 100) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Expected from <= to and 1 <= k <= 100"));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Range is limited to " + MAX_RANGE_DAYS + " days"));
+        }
+        return ResponseEntity.ok(dailyItemRollupService.topItems(currentAdminResolver.currentAdmin().restaurantId(), from, to, k));
+    }
+
+    /**
+     * Breaks the admin's restaurant sales over an inclusive date range down by any
+     * combination of weekday, hour and category, e.g. by=weekday,hour. Served
+     * from the in-memory columnar store when analytics.columnar.enabled is set.
+     */
+    @GetMapping("/analytics/breakdown")
+    public ResponseEntity<?> getSalesBreakdown(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "") List<String> by) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Expected from <= to within " + MAX_RANGE_DAYS + " days"));
+        }
+        EnumSet<Dimension> groupBy = EnumSet.noneOf(Dimension.class);
+        for (String dimension : by) {
+            if (dimension.isBlank()) {
+                continue;
+            }
+            try {
+                groupBy.add(Dimension.valueOf(dimension.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Unknown dimension " + dimension + "; use weekday, hour or category"));
+            }
+        }
+        if (!columnarSalesStore.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "Sales analytics store is not enabled or still loading"));
+        }
+        Long restaurantId = currentAdminResolver.currentAdmin().restaurantId();
+        return ResponseEntity.ok(columnarSalesStore.breakdown(restaurantId, from, to, groupBy));
     }
 
     @GetMapping("/category-sales/{date}")
     public Map<String, Double> getCategorySales(
         @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return saleByCategoryService.calculateSalesByCategory(date);
+        return saleByCategoryService.calculateSalesByCategory(currentAdminResolver.currentAdmin().restaurantId(), date);
     }
 
    
@@ -0,0 +1,216 @@
+package com.smartOrder.restaurant_managment_app.Controllers;
+
+import com.smartOrder.restaurant_managment_app.services.MenuImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded menu images.
+ * Uploaded files are never rewritten in place (new uploads get new names), so
+ * responses are marked immutable and carry a strong ETag and Last-Modified for
+ * revalidation. Single byte ranges are supported. File bodies are handed to
+ * Tomcat's sendfile when the connector offers it, and otherwise copied with
+ * {@link FileChannel#transferTo}.
+ */
+@RestController
+public class UploadController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private final MenuImageService menuImageService;
+    private final long sendfileThreshold;
+    private final String cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic().immutable().getHeaderValue();
+
+    /**
+     * Constructs UploadController with required dependencies.
+     *
+     * @param menuImageService the store that owns the uploads directory
+     * @param sendfileThreshold smallest body in bytes handed to sendfile
+     */
+    public UploadController(MenuImageService menuImageService,
+                            @Value("${uploads.sendfile-threshold-bytes:49152}") long sendfileThreshold) {
+        this.menuImageService = menuImageService;
+        this.sendfileThreshold = sendfileThreshold;
+    }
+
+    /**
+     * Serves an uploaded file, honouring conditional and range requests.
+     *
+     * @param filename the file name under the uploads directory
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @throws IOException if the file cannot be read or written
+     */
+    @RequestMapping(value = "/uploads/{filename:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serveUpload(@PathVariable String filename, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        Path file = menuImageService.resolveUpload(filename);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request, etag, lastModified)) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            if (matcher.matches()) {
+                long[] bounds = parseRange(matcher.group(1), matcher.group(2), length);
+                if (bounds == null) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if (RequestMethod.HEAD.name().equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && count >= sendfileThreshold) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * Evaluates If-None-Match, falling back to If-Modified-Since.
+     *
+     * @param request the HTTP request
+     * @param etag the file's ETag
+     * @param lastModified the file's modification time in whole seconds, as millis
+     * @return true if the client's copy is current
+     */
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = parseDate(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * Checks If-Range so stale partial copies get the whole file instead of a range.
+     *
+     * @param request the HTTP request
+     * @param etag the file's ETag
+     * @param lastModified the file's modification time in whole seconds, as millis
+     * @return true if the Range header should be honoured
+     */
+    private boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        return parseDate(request, HttpHeaders.IF_RANGE) == lastModified;
+    }
+
+    /**
+     * Resolves a single byte range against the file length.
+     *
+     * @param first the range start, may be empty for a suffix range
+     * @param last the range end, may be empty for an open range
+     * @param length the file length
+     * @return inclusive start and end, or null if the range cannot be satisfied
+     */
+    private long[] parseRange(String first, String last, long length) {
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                return suffix == 0 || length == 0 ? null : new long[] {Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            return start >= length || end < start ? null : new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean matchesEtag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long parseDate(HttpServletRequest request, String header) {
+        try {
+            return request.getDateHeader(header);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
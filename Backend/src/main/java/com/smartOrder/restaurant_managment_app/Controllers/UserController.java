@@ -3,6 +3,7 @@ package com.smartOrder.restaurant_managment_app.Controllers;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,14 +23,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
-import com.smartOrder.restaurant_managment_app.Models.RefreshToken;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.PasswordHashingBusyException;
 import com.smartOrder.restaurant_managment_app.Models.Restaurant;
+import com.smartOrder.restaurant_managment_app.Models.UserPrinciple;
 import com.smartOrder.restaurant_managment_app.Models.Users;
+import com.smartOrder.restaurant_managment_app.Security.LoginRateLimiter;
 import com.smartOrder.restaurant_managment_app.repository.RestaurantRepository;
 import com.smartOrder.restaurant_managment_app.repository.UserRepo;
 import com.smartOrder.restaurant_managment_app.services.JWTService;
 import com.smartOrder.restaurant_managment_app.services.MyUserDetailsService;
 import com.smartOrder.restaurant_managment_app.services.RefreshTokenService;
+import com.smartOrder.restaurant_managment_app.services.TokenRevocationService;
 import com.smartOrder.restaurant_managment_app.services.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -59,6 +63,10 @@ public class UserController {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private RefreshTokenService refreshTokenService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
     /**
      * Registers a new admin user and creates/associates restaurant.
@@ -113,24 +121,31 @@ public class UserController {
      * Authenticates an admin user and returns JWT tokens.
      *
      * @param user the login credentials
+     * @param request the HTTP request, used for per-IP throttling
      * @return ResponseEntity with access token, refresh token, and user details
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Users user) {
+    public ResponseEntity<?> login(@RequestBody Users user, HttpServletRequest request) {
+        if (!loginRateLimiter.tryAcquire(user.getUsername(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(
+                Map.of("message", "Too many login attempts, please try again later")
+            );
+        }
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword())
             );
+            loginRateLimiter.recordSuccess(user.getUsername(), request.getRemoteAddr());
 
             Users authenticatedUser = userService.findByUsername(user.getUsername());
             UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
             String accessToken = jwtService.generateToken(userDetails);
             
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(authenticatedUser.getId());
+            String refreshToken = refreshTokenService.createRefreshToken(authenticatedUser.getId());
 
             return ResponseEntity.ok(Map.of(
                 "accessToken", accessToken,
-                "refreshToken", refreshToken.getToken(),
+                "refreshToken", refreshToken,
                 "tokenType", "Bearer",
                 "expiresIn", 3600,
                 "user", Map.of(
@@ -141,6 +156,9 @@ public class UserController {
                 )
             ));
         } catch (Exception e) {
+            if (isHashingBusy(e)) {
+                return hashingBusyResponse();
+            }
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                 Map.of("message", "Login failed: " + e.getMessage())
             );
@@ -151,10 +169,16 @@ public class UserController {
      * Authenticates an employee (waiter or kitchen staff) and returns JWT tokens.
      *
      * @param user the login credentials
+     * @param request the HTTP request, used for per-IP throttling
      * @return ResponseEntity with access token, refresh token, and user details
      */
     @PostMapping("/api/employee/login")
-    public ResponseEntity<?> employeeLogin(@RequestBody Users user) {
+    public ResponseEntity<?> employeeLogin(@RequestBody Users user, HttpServletRequest request) {
+        if (!loginRateLimiter.tryAcquire(user.getUsername(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(
+                Map.of("message", "Too many login attempts, please try again later")
+            );
+        }
         try {
             Users dbUser = userService.findByUsername(user.getUsername());
             if (dbUser == null) {
@@ -170,6 +194,7 @@ public class UserController {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword())
             );
+            loginRateLimiter.recordSuccess(user.getUsername(), request.getRemoteAddr());
 
             if (dbUser.getRole() != Users.Role.WAITER && dbUser.getRole() != Users.Role.KITCHEN) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -179,11 +204,11 @@ public class UserController {
             UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
             String accessToken = jwtService.generateToken(userDetails);
             
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(dbUser.getId());
+            String refreshToken = refreshTokenService.createRefreshToken(dbUser.getId());
 
             return ResponseEntity.ok(Map.of(
                 "accessToken", accessToken,
-                "refreshToken", refreshToken.getToken(),
+                "refreshToken", refreshToken,
                 "tokenType", "Bearer",
                 "expiresIn", 3600, 
                 "user", Map.of(
@@ -198,10 +223,32 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("message", "Invalid username or password"));
         } catch (Exception e) {
+            if (isHashingBusy(e)) {
+                return hashingBusyResponse();
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("message", "Login failed: " + e.getMessage()));
         }
     }
+
+    /**
+     * Checks whether a login failed only because password hashing was saturated.
+     * The authentication provider may wrap the encoder's exception.
+     */
+    private static boolean isHashingBusy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingBusyException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<?> hashingBusyResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("message", "Login is busy, please try again in a moment"));
+    }
     
     /**
      * Refreshes an access token using a valid refresh token.
@@ -227,14 +274,14 @@ public class UserController {
                 );
             }
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-            String newAccessToken = jwtService.generateToken(userDetails);
+            String newAccessToken = jwtService.generateToken(new UserPrinciple(user));
             
-            RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user.getId());
+            String newRefreshToken = refreshTokenService.createRefreshToken(user.getId());
+            refreshTokenService.markRotated(refreshToken);
 
             return ResponseEntity.ok(Map.of(
                 "accessToken", newAccessToken,
-                "refreshToken", newRefreshToken.getToken(),
+                "refreshToken", newRefreshToken,
                 "tokenType", "Bearer",
                 "expiresIn", 3600
             ));
@@ -247,11 +294,13 @@ public class UserController {
     }
 
     /**
-     * Logs out an admin user and invalidates their refresh token.
+     * Logs out an admin user from the calling device.
+     * Revokes the presented access token and, if sent, its refresh token;
+     * other devices signed in to the same account stay signed in.
      *
      * @param request the HTTP request
      * @param response the HTTP response
-     * @param requestBody optional request body
+     * @param requestBody optional request body with the "refreshToken" to revoke
      * @return ResponseEntity indicating logout success
      */
     @PostMapping("/logout")
@@ -260,11 +309,7 @@ public class UserController {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth != null) {
-                String username = auth.getName();
-                Users user = userService.findByUsername(username);
-                if (user != null) {
-                    refreshTokenService.deleteByUserId(user.getId());
-                }
+                revokePresentedTokens(auth, request, requestBody);
                 new SecurityContextLogoutHandler().logout(request, response, auth);
             }
             return ResponseEntity.ok().body(Map.of("message", "Logout successful"));
@@ -276,11 +321,12 @@ public class UserController {
     }
 
     /**
-     * Logs out an employee user and invalidates their refresh token.
+     * Logs out an employee user from the calling device.
+     * Shared kitchen and waiter accounts stay signed in on other devices.
      *
      * @param request the HTTP request
      * @param response the HTTP response
-     * @param requestBody optional request body
+     * @param requestBody optional request body with the "refreshToken" to revoke
      * @return ResponseEntity indicating logout success
      */
     @PostMapping("/api/employee/logout")
@@ -289,11 +335,7 @@ public class UserController {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth != null) {
-                String username = auth.getName();
-                Users user = userService.findByUsername(username);
-                if (user != null) {
-                    refreshTokenService.deleteByUserId(user.getId());
-                }
+                revokePresentedTokens(auth, request, requestBody);
                 new SecurityContextLogoutHandler().logout(request, response, auth);
             }
             return ResponseEntity.ok().body(Map.of("message", "Employee logout successful"));
@@ -304,6 +346,31 @@ public class UserController {
         }
     }
 
+    /**
+     * Revokes the bearer token of the current request and the refresh token sent with it.
+     * Tokens issued before tokens carried an id can only be revoked together with
+     * all of the user's tokens.
+     */
+    private void revokePresentedTokens(Authentication auth, HttpServletRequest request,
+                                       Map<String, String> requestBody) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            JWTService.TokenClaims claims = jwtService.parseAndValidate(authHeader.substring(7));
+            if (claims.tokenId() != null) {
+                tokenRevocationService.revokeToken(claims.tokenId(), claims.expiresAt());
+            } else {
+                Users user = userService.findByUsername(auth.getName());
+                if (user != null) {
+                    tokenRevocationService.revokeTokens(user);
+                }
+            }
+        }
+        String refreshToken = requestBody == null ? null : requestBody.get("refreshToken");
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
     /**
      * Retrieves all users for a specific restaurant (admin only).
      *
@@ -0,0 +1,69 @@
+package com.smartOrder.restaurant_managment_app.Models;
+
+import java.time.LocalDate;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Quantity and revenue of one menu item sold by one restaurant on one day.
+ * Maintained alongside order writes so sales analytics read this small table
+ * instead of joining orders, ordered items and menu items.
+ */
+@Entity
+@Table(name = "item_daily_sales", uniqueConstraints = @UniqueConstraint(name = "uk_item_daily_sales",
+    columnNames = {"date", "restaurant_id", "menu_item_id"}))
+public class ItemDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "menu_item_id", nullable = false)
+    private Long menuItemId;
+
+    /** Name of the item when it was sold, kept for items deleted since */
+    private String name;
+
+    /** Category of the item when it was sold */
+    private String category;
+
+    @Column(nullable = false)
+    private long qty;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ItemDailySales() {}
+
+    public Long getId() { return id; }
+    public Long getRestaurantId() { return restaurantId; }
+    public LocalDate getDate() { return date; }
+    public Long getMenuItemId() { return menuItemId; }
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public long getQty() { return qty; }
+    public long getRevenueCents() { return revenueCents; }
+
+    public void setId(Long id) { this.id = id; }
+    public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; }
+    public void setName(String name) { this.name = name; }
+    public void setCategory(String category) { this.category = category; }
+    public void setQty(long qty) { this.qty = qty; }
+    public void setRevenueCents(long revenueCents) { this.revenueCents = revenueCents; }
+}
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
  * 
  */
 @Entity
+@Table(indexes = @Index(name = "idx_menu_items_admin_available", columnList = "admin_id, available"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "admin"})
 public class MenuItems {
     
@@ -33,6 +34,12 @@ public class MenuItems {
     /** URL path to the item's image */
     private String imageUrl;
     
+    /** URL path to the medium-size variant of the item's image */
+    private String mediumImageUrl;
+    
+    /** URL path to the thumbnail variant of the item's image */
+    private String thumbnailUrl;
+    
     /** Whether the item is currently available for ordering */
     @Column(nullable = false)
     private boolean available = true;
@@ -176,6 +183,42 @@ public class MenuItems {
         this.imageUrl = imageUrl;
     }
     
+    /**
+     * Gets the URL of the medium-size image variant.
+     *
+     * @return the medium image URL
+     */
+    public String getMediumImageUrl() {
+        return mediumImageUrl;
+    }
+    
+    /**
+     * Sets the URL of the medium-size image variant.
+     *
+     * @param mediumImageUrl the medium image URL
+     */
+    public void setMediumImageUrl(String mediumImageUrl) {
+        this.mediumImageUrl = mediumImageUrl;
+    }
+    
+    /**
+     * Gets the URL of the thumbnail image variant.
+     *
+     * @return the thumbnail URL
+     */
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+    
+    /**
+     * Sets the URL of the thumbnail image variant.
+     *
+     * @param thumbnailUrl the thumbnail URL
+     */
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+    
     /**
      * Checks if the menu item is available for ordering.
      *
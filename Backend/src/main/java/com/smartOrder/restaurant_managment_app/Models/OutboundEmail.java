@@ -0,0 +1,101 @@
+package com.smartOrder.restaurant_managment_app.Models;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Represents an email waiting in the outbox to be delivered.
+ * Persisted so queued mail survives restarts and can be retried with backoff.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_claim", columnList = "claim_token")
+})
+public class OutboundEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Column(length = 4000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    /**
+     * Enumeration of delivery states.
+     */
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+
+    private int attempts;
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    /** Token of the drain that last claimed this email */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public OutboundEmail() {}
+
+    /**
+     * Constructs a pending email.
+     */
+    public OutboundEmail(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    // Getters and setters with Javadoc comments
+    public Long getId() { return id; }
+    public String getRecipient() { return recipient; }
+    public String getSubject() { return subject; }
+    public String getBody() { return body; }
+    public Status getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public LocalDateTime getSentAt() { return sentAt; }
+    public String getLastError() { return lastError; }
+    public String getClaimToken() { return claimToken; }
+
+    public void setId(Long id) { this.id = id; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public void setBody(String body) { this.body = body; }
+    public void setStatus(Status status) { this.status = status; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+}
@@ -6,7 +6,7 @@ import java.time.Instant;
 /**
  * Entity representing a refresh token for JWT authentication.
  * Used to generate new access tokens without requiring re-authentication.
- * 
+ * Only a SHA-256 hash of the token is stored; each user has at most one row.
  */
 @Entity
 @Table(name = "refresh_tokens")
@@ -16,12 +16,12 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    /** The unique refresh token string */
-    @Column(nullable = false, unique = true)
-    private String token;
+    /** SHA-256 hash of the refresh token, unique and indexed */
+    @Column(name = "token", nullable = false, unique = true)
+    private String tokenHash;
 
     /** The ID of the user this token belongs to */
-    @Column(name = "user_id", nullable = false)
+    @Column(name = "user_id", nullable = false, unique = true)
     private Integer userId;
 
     /** When this token expires */
@@ -40,12 +40,12 @@ public class RefreshToken {
     /**
      * Constructs a RefreshToken with specified values.
      *
-     * @param token the refresh token string
+     * @param tokenHash the hash of the refresh token
      * @param userId the user ID this token belongs to
      * @param expiryDate when the token expires
      */
-    public RefreshToken(String token, Integer userId, Instant expiryDate) {
-        this.token = token;
+    public RefreshToken(String tokenHash, Integer userId, Instant expiryDate) {
+        this.tokenHash = tokenHash;
         this.userId = userId;
         this.expiryDate = expiryDate;
     }
@@ -69,21 +69,21 @@ public class RefreshToken {
     }
 
     /**
-     * Gets the refresh token string.
+     * Gets the hash of the refresh token.
      *
-     * @return the token string
+     * @return the token hash
      */
-    public String getToken() { 
-        return token; 
+    public String getTokenHash() { 
+        return tokenHash; 
     }
     
     /**
-     * Sets the refresh token string.
+     * Sets the hash of the refresh token.
      *
-     * @param token the token string
+     * @param tokenHash the token hash
      */
-    public void setToken(String token) { 
-        this.token = token; 
+    public void setTokenHash(String tokenHash) { 
+        this.tokenHash = tokenHash; 
     }
 
     /**
@@ -39,6 +39,13 @@ public class Restaurant {
     @CreationTimestamp
     private LocalDateTime createdAt;
     
+    /**
+     * Version of the restaurant's menu, increased after every menu write so
+     * every instance can tell whether its cached menu snapshot is current.
+     */
+    @Column(name = "menu_version", nullable = false)
+    private long menuVersion;
+    
     /**
      * Gets the restaurant's unique identifier.
      * @return the restaurant ID
@@ -102,4 +109,20 @@ public class Restaurant {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    /**
+     * Gets the restaurant's menu version.
+     * @return the menu version
+     */
+    public long getMenuVersion() {
+        return menuVersion;
+    }
+
+    /**
+     * Sets the restaurant's menu version.
+     * @param menuVersion the menu version to set
+     */
+    public void setMenuVersion(long menuVersion) {
+        this.menuVersion = menuVersion;
+    }
 }
\ No newline at end of file
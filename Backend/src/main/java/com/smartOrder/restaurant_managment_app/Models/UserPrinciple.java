@@ -43,4 +43,13 @@ public class UserPrinciple implements UserDetails {
     
     @Override
     public boolean isEnabled() { return user.isActive(); }
+    
+    /** Database id of the wrapped user. */
+    public Integer getUserId() { return user.getId(); }
+    
+    /** Restaurant the wrapped user belongs to. */
+    public Long getRestaurantId() { return user.getRestaurantId(); }
+    
+    /** Current token version of the wrapped user. */
+    public int getTokenVersion() { return user.getTokenVersion(); }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 
@@ -18,7 +19,10 @@ import jakarta.persistence.Transient;
  * Includes roles, status flags, and timestamps for account management.
  */
 @Entity
-@Table(name = "user_password")
+@Table(name = "user_password", indexes = {
+    @Index(name = "idx_user_restaurant", columnList = "restaurant_id"),
+    @Index(name = "idx_user_updated_at", columnList = "updated_at")
+})
 public class Users {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) 
@@ -58,6 +62,10 @@ public class Users {
     
     @Column(name = "restaurant_id", nullable = false)
     private Long restaurantId; 
+    
+    /** Incremented whenever this user's issued access tokens must stop working */
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
 
     // Getters and setters with Javadoc comments
     public String getResetToken() { return resetToken; }
@@ -95,6 +103,9 @@ public class Users {
     public Long getRestaurantId() { return restaurantId; }
     public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
     
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+    
     public String getRestaurantName() { return restaurantName; }
     public void setRestaurantName(String restaurantName) { 
         this.restaurantName = restaurantName; 
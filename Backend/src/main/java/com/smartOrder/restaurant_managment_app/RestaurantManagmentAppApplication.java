@@ -3,15 +3,14 @@ package com.smartOrder.restaurant_managment_app;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Main application class for the Restaurant Management System.
- * Configures CORS settings, static resource handling, and enables scheduling.
+ * Configures CORS settings and enables scheduling. Uploaded files are served
+ * by UploadController.
  * 
  * @version 1.0
  */
@@ -46,24 +45,4 @@ public class RestaurantManagmentAppApplication {
             }
         };
     }
-    
-    /**
-     * Configuration class for web-related settings.
-     * Handles static resource mapping for uploaded files.
-     */
-    @Configuration
-    class WebConfig implements WebMvcConfigurer {
-        
-        /**
-         * Configures resource handlers for serving uploaded files.
-         * Maps /uploads/** URLs to the local uploads directory.
-         *
-         * @param registry the resource handler registry
-         */
-        @Override
-        public void addResourceHandlers(ResourceHandlerRegistry registry) {
-            registry.addResourceHandler("/uploads/**")
-                    .addResourceLocations("file:uploads/");
-        }
-    }
 }
\ No newline at end of file
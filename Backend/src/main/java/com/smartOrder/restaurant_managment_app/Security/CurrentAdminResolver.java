@@ -0,0 +1,98 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import com.smartOrder.restaurant_managment_app.Models.UserPrinciple;
+import com.smartOrder.restaurant_managment_app.Models.Users;
+import com.smartOrder.restaurant_managment_app.Models.Users.Role;
+import com.smartOrder.restaurant_managment_app.repository.UserRepo;
+import com.smartOrder.restaurant_managment_app.services.BoundedTtlCache;
+
+/**
+ * Resolves the id and restaurant of the authenticated admin without loading the
+ * Users entity. The ids come from the security principal when it carries them
+ * (JWT claims or a cached UserPrinciple); otherwise they are looked up once and
+ * kept in a short-lived cache. The result is also stored on the current request
+ * so repeated calls within one request are free.
+ */
+@Component
+public class CurrentAdminResolver {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentAdminResolver.class.getName() + ".admin";
+    private static final String ADMIN_AUTHORITY = "ROLE_" + Role.ADMIN.name();
+
+    /**
+     * Ids of an authenticated admin.
+     *
+     * @param userId the admin's user id
+     * @param restaurantId the admin's restaurant
+     */
+    public record AdminIdentity(Integer userId, Long restaurantId) {}
+
+    private final UserRepo userRepo;
+    private final BoundedTtlCache<String, AdminIdentity> identities;
+
+    /**
+     * Constructs a new CurrentAdminResolver.
+     * @param userRepo Repository used when the principal carries no ids
+     * @param maxSize Maximum number of cached identities
+     * @param ttlMillis How long a looked-up identity is reused
+     */
+    public CurrentAdminResolver(UserRepo userRepo,
+                                @Value("${security.admin-cache.max-size:1000}") int maxSize,
+                                @Value("${security.admin-cache.ttl-ms:30000}") long ttlMillis) {
+        this.userRepo = userRepo;
+        this.identities = new BoundedTtlCache<>(maxSize, ttlMillis);
+    }
+
+    /**
+     * Returns the ids of the authenticated admin.
+     * @return The admin's identity
+     * @throws RuntimeException if the caller is not an authenticated admin
+     */
+    public AdminIdentity currentAdmin() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AdminIdentity cached) {
+            return cached;
+        }
+        AdminIdentity identity = resolve();
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, identity, RequestAttributes.SCOPE_REQUEST);
+        }
+        return identity;
+    }
+
+    private AdminIdentity resolve() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new RuntimeException("Not authenticated");
+        }
+        boolean admin = auth.getAuthorities().stream()
+            .anyMatch(authority -> ADMIN_AUTHORITY.equals(authority.getAuthority()));
+        if (!admin) {
+            throw new RuntimeException("User is not an admin");
+        }
+        Object principal = auth.getPrincipal();
+        if (principal instanceof JwtPrincipal jwt && jwt.userId() != null && jwt.restaurantId() != null) {
+            return new AdminIdentity(jwt.userId(), jwt.restaurantId());
+        }
+        if (principal instanceof UserPrinciple user) {
+            return new AdminIdentity(user.getUserId(), user.getRestaurantId());
+        }
+        return identities.get(auth.getName(), username -> {
+            Users user = userRepo.findByUsername(username);
+            if (user == null) {
+                throw new RuntimeException("User not found");
+            }
+            if (user.getRole() != Role.ADMIN) {
+                throw new RuntimeException("User is not an admin");
+            }
+            return new AdminIdentity(user.getId(), user.getRestaurantId());
+        });
+    }
+}
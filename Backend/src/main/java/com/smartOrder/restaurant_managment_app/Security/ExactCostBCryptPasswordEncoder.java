@@ -0,0 +1,39 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder that asks for a rehash whenever a stored hash was made with a
+ * different cost than the configured one. Spring's encoder only upgrades hashes
+ * with a lower cost, so lowering the cost would otherwise keep every existing
+ * password on the old, slower cost forever.
+ */
+public class ExactCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+
+    private final int cost;
+
+    /**
+     * Constructs a new ExactCostBCryptPasswordEncoder.
+     * @param cost BCrypt cost factor for new hashes
+     */
+    public ExactCostBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("Encoded password does not look like BCrypt");
+        }
+        return Integer.parseInt(matcher.group(1)) != cost;
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -12,26 +15,40 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import com.smartOrder.restaurant_managment_app.services.JWTService;
 import com.smartOrder.restaurant_managment_app.services.MyUserDetailsService;
+import com.smartOrder.restaurant_managment_app.services.TokenRevocationService;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * JWT authentication filter that processes incoming requests and validates JWT tokens.
  * This filter is applied to all requests except the login endpoint.
+ * In stateless mode, which deployments opt into, the authentication is built
+ * from the token's claims alone. Legacy tokens without a token version are then
+ * rejected, since they could never be revoked by version; outside stateless
+ * mode every token is authorized through the cached user lookup.
  */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JWTService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final MyUserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
+    private final boolean stateless;
 
     /**
      * Constructs a new JwtFilter with required dependencies.
-     * @param jwtService Service for JWT operations
+     * @param verifiedTokenCache Cache of already-verified tokens in front of JWT verification
      * @param userDetailsService Service for loading user details
+     * @param revocationService Revocation list for disabled users and logged-out tokens
+     * @param stateless Whether to authorize from token claims without loading the user
      */
-    public JwtFilter(JWTService jwtService, MyUserDetailsService userDetailsService) {
-        this.jwtService = jwtService;
+    public JwtFilter(VerifiedTokenCache verifiedTokenCache, MyUserDetailsService userDetailsService,
+                     TokenRevocationService revocationService,
+                     @Value("${security.jwt.stateless:false}") boolean stateless) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailsService = userDetailsService;
+        this.revocationService = revocationService;
+        this.stateless = stateless;
     }
 
     /**
@@ -60,23 +77,48 @@ public class JwtFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtService.extractUserName(jwt);
+            // Verified at most once per distinct token; invalid tokens throw
+            final JWTService.TokenClaims claims = verifiedTokenCache.verify(jwt);
+            final String username = claims.username();
+
+            Integer tokenVersion = claims.tokenVersion();
+            if (revocationService.isRevoked(username, tokenVersion, claims.tokenId())) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revoked");
+                return;
+            }
+
+            if (stateless && tokenVersion == null) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expired, please log in again");
+                return;
+            }
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtService.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                UsernamePasswordAuthenticationToken authToken = stateless
+                    ? authenticationFromClaims(username, claims)
+                    : authenticationFromUser(username);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
             filterChain.doFilter(request, response);
         } catch (Exception e) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
         }
     }
-}
\ No newline at end of file
+
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(String username, JWTService.TokenClaims claims) {
+        List<GrantedAuthority> authorities = claims.roles().stream()
+            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+            .toList();
+        JwtPrincipal principal = new JwtPrincipal(username, claims.userId(), claims.restaurantId());
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromUser(String username) {
+        UserDetails userDetails = userDetailsService.loadCachedUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null,
+            userDetails.getAuthorities()
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import java.security.Principal;
+
+/**
+ * Principal built from the verified claims of an access token.
+ * Used in stateless mode so authenticated requests need no user lookup.
+ *
+ * @param username the token subject
+ * @param userId the user's database id
+ * @param restaurantId the restaurant the user belongs to
+ */
+public record JwtPrincipal(String username, Integer userId, Long restaurantId) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
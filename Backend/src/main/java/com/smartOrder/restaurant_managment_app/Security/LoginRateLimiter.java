@@ -0,0 +1,161 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token-bucket throttle for login attempts, keyed by username and by client IP.
+ * An attempt is allowed only if both buckets have a token, and a successful
+ * login gives its tokens back, so only failed attempts wear a bucket down and
+ * shared accounts or devices behind one address are not throttled by their
+ * own logins. Buckets that have refilled completely carry no state and are
+ * dropped when the table is full; if it is still full, new keys are refused
+ * rather than evicting buckets that are still draining, so cycling through
+ * usernames cannot reset another account's bucket.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    private final int usernameCapacity;
+    private final double usernameRefillPerSecond;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+    private final int maxTrackedKeys;
+
+    /**
+     * Constructs a new LoginRateLimiter.
+     * @param usernameCapacity Burst size per username
+     * @param usernameRefillPerSecond Sustained attempts per second per username
+     * @param ipCapacity Burst size per client IP
+     * @param ipRefillPerSecond Sustained attempts per second per client IP
+     * @param maxTrackedKeys Maximum number of buckets kept in memory
+     */
+    public LoginRateLimiter(@Value("${security.login-limit.username-capacity:5}") int usernameCapacity,
+                            @Value("${security.login-limit.username-refill-per-second:0.1}") double usernameRefillPerSecond,
+                            @Value("${security.login-limit.ip-capacity:20}") int ipCapacity,
+                            @Value("${security.login-limit.ip-refill-per-second:0.5}") double ipRefillPerSecond,
+                            @Value("${security.login-limit.max-tracked-keys:50000}") int maxTrackedKeys) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerSecond = usernameRefillPerSecond;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerSecond;
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    /**
+     * Consumes one token from the username and IP buckets.
+     * @param username The username being logged in
+     * @param clientIp The remote address of the request
+     * @return true if the attempt may proceed
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        TokenBucket ipBucket = bucket(ipKey(clientIp), ipCapacity, ipRefillPerSecond);
+        if (ipBucket == null || !ipBucket.tryConsume()) {
+            return false;
+        }
+        TokenBucket usernameBucket = bucket(usernameKey(username), usernameCapacity, usernameRefillPerSecond);
+        return usernameBucket != null && usernameBucket.tryConsume();
+    }
+
+    /**
+     * Gives back the tokens of an attempt that authenticated successfully.
+     * @param username The username that logged in
+     * @param clientIp The remote address of the request
+     */
+    public void recordSuccess(String username, String clientIp) {
+        refund(ipKey(clientIp));
+        refund(usernameKey(username));
+    }
+
+    private void refund(String key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    /**
+     * Returns the key's bucket, creating it if there is room.
+     * @return The bucket, or null if the table is full of draining buckets
+     */
+    private TokenBucket bucket(String key, int capacity, double refillPerSecond) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxTrackedKeys) {
+            sweepRefilled();
+            if (buckets.size() >= maxTrackedKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond));
+    }
+
+    /**
+     * Drops buckets that have refilled completely, at most once per interval so a
+     * full table of draining buckets is not scanned on every attempt.
+     */
+    private void sweepRefilled() {
+        long now = System.nanoTime();
+        long next = nextSweep.get();
+        if (now - next < 0 || !nextSweep.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    private static String usernameKey(String username) {
+        return "user:" + (username == null ? "" : username.toLowerCase());
+    }
+
+    /**
+     * Lazily refilled token bucket.
+     */
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryConsume() {
+            refill(System.nanoTime());
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            return tokens + (now - lastRefill) * refillPerNano >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
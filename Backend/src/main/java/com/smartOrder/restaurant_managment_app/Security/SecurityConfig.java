@@ -1,5 +1,6 @@
 package com.smartOrder.restaurant_managment_app.Security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,6 +11,7 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,6 +21,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Main security configuration class that defines authentication and authorization rules.
@@ -54,6 +57,10 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/orders/top-items/*").hasAnyAuthority("ROLE_ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/orders/category-sales/*").hasAnyAuthority("ROLE_ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/orders/refresh-stats/**").hasAnyAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/orders/top-items").hasAnyAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/orders/stats").hasAnyAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/orders/analytics/**").hasAnyAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/orders/item-sales/rebuild").hasAnyAuthority("ROLE_ADMIN")
 
                 // Public endpoints
                 .requestMatchers("/api/employee/login").permitAll()
@@ -67,6 +74,7 @@ public class SecurityConfig {
                     "/uploads/**",
                     "/error",
                     "/api/menu/public",
+                    "/api/menu/public/**",
                     "/ws/**",
                     "/api/tables/*/session-status",
                     "/api/orders/",
@@ -113,6 +121,10 @@ public class SecurityConfig {
                 // Admin-only endpoints
                 .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
 
+                // Actuator: health is public, metrics are admin-only
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
+
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
@@ -150,7 +162,7 @@ public class SecurityConfig {
         config.setAllowedHeaders(List.of("*"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
-        config.setExposedHeaders(List.of("Authorization"));
+        config.setExposedHeaders(List.of("Authorization", "X-Menu-Version"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
@@ -159,11 +171,26 @@ public class SecurityConfig {
 
     /**
      * Provides the password encoder implementation.
-     * @return BCryptPasswordEncoder with strength 12
+     * New hashes are "{bcrypt}"-prefixed with the configured cost; legacy unprefixed
+     * BCrypt hashes, and hashes made with a different cost, still match and are
+     * rehashed on the next successful login.
+     * Hashing runs on a bounded dedicated pool.
+     * @param bcryptCost BCrypt cost factor for new hashes
+     * @param hashThreads Number of threads allowed to hash concurrently
+     * @param hashQueue Number of hashes allowed to wait for a thread
+     * @param hashTimeoutMs How long a request waits for its hash
+     * @return Bounded DelegatingPasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-cost:12}") int bcryptCost,
+            @Value("${security.password.hash-threads:2}") int hashThreads,
+            @Value("${security.password.hash-queue:32}") int hashQueue,
+            @Value("${security.password.hash-timeout-ms:5000}") long hashTimeoutMs) {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(
+            "bcrypt", Map.of("bcrypt", new ExactCostBCryptPasswordEncoder(bcryptCost)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptCost));
+        return new BoundedPasswordEncoder(delegating, hashThreads, hashQueue, hashTimeoutMs);
     }
 
     /**
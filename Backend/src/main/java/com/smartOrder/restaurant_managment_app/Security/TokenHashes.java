@@ -0,0 +1,29 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Hashing helper for bearer and refresh tokens, so raw tokens are never used as
+ * cache keys or stored in the database.
+ */
+public final class TokenHashes {
+
+    private TokenHashes() {}
+
+    /**
+     * Returns the Base64-encoded SHA-256 hash of a token.
+     * @param token The raw token
+     * @return The 44-character hash
+     */
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
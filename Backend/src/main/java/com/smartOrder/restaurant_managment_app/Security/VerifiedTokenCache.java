@@ -0,0 +1,52 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.smartOrder.restaurant_managment_app.services.BoundedTtlCache;
+import com.smartOrder.restaurant_managment_app.services.JWTService;
+
+/**
+ * Cache of already-verified bearer tokens, keyed by the token's signature segment.
+ * Clients that repeat the same access token (kitchen and waiter tablets) skip
+ * signature verification and claim parsing after the first request. The
+ * signature is already a MAC of the rest of the token, so it identifies the
+ * token without hashing it again; a hit still compares the whole token, so a
+ * signature copied onto another header or payload is verified like any new
+ * token. Entries expire together with the token, and revocation is still
+ * checked per request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JWTService jwtService;
+    private final BoundedTtlCache<String, VerifiedToken> verified;
+
+    /**
+     * Constructs a new VerifiedTokenCache.
+     * @param jwtService Service used to verify tokens on a cache miss
+     * @param maxSize Maximum number of tokens kept
+     */
+    public VerifiedTokenCache(JWTService jwtService,
+                              @Value("${security.token-cache.max-size:10000}") int maxSize) {
+        this.jwtService = jwtService;
+        this.verified = new BoundedTtlCache<>(maxSize, 0);
+    }
+
+    /**
+     * Returns the claims of a valid token, verifying it only if it is not cached.
+     * @param token The raw bearer token
+     * @return The verified claims
+     */
+    public JWTService.TokenClaims verify(String token) {
+        String key = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken cached = verified.get(key);
+        if (cached != null && cached.token().equals(token)) {
+            return cached.claims();
+        }
+        JWTService.TokenClaims claims = jwtService.parseAndValidate(token);
+        verified.put(key, new VerifiedToken(token, claims), claims.expiresAt().toEpochMilli());
+        return claims;
+    }
+
+    private record VerifiedToken(String token, JWTService.TokenClaims claims) {}
+}
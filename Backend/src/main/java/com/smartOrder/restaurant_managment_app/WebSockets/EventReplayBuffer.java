@@ -0,0 +1,148 @@
+package com.smartOrder.restaurant_managment_app.WebSockets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps a bounded ring buffer of recently published events per topic.
+ * Every event gets a per-topic sequence number (sent as the "seq" STOMP header)
+ * so clients that reconnect can ask only for the events they missed. Payloads
+ * are converted to a JSON tree when published, so replays return the event as
+ * it was sent rather than the current state of a live entity. Sequence numbers
+ * are assigned and events sent under the topic's lock, so subscribers receive
+ * each topic's events in sequence order. Sequences restart from 1 with every
+ * boot, so each event also carries this buffer's epoch (the "epoch" header);
+ * a client whose last sequence belongs to another epoch cannot be caught up
+ * from the buffer and is told to refetch.
+ */
+@Component
+public class EventReplayBuffer {
+
+    /** STOMP header carrying the per-topic sequence number */
+    public static final String SEQUENCE_HEADER = "seq";
+    /** STOMP header carrying the epoch the sequence number belongs to */
+    public static final String EPOCH_HEADER = "epoch";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final Map<String, TopicRing> rings = new ConcurrentHashMap<>();
+    private final String epoch = UUID.randomUUID().toString();
+
+    /**
+     * Constructs a new EventReplayBuffer.
+     *
+     * @param messagingTemplate The messaging template used for WebSocket communication
+     * @param objectMapper Mapper used to snapshot payloads
+     * @param capacity Number of events retained per topic
+     */
+    public EventReplayBuffer(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                             @Value("${websocket.replay.capacity:256}") int capacity) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the event in the topic's ring buffer and broadcasts it with its sequence number.
+     *
+     * @param topic The destination topic
+     * @param payload The event payload
+     * @return The sequence number assigned to the event
+     */
+    public long publish(String topic, Object payload) {
+        JsonNode snapshot = objectMapper.valueToTree(payload);
+        TopicRing ring = rings.computeIfAbsent(topic, t -> new TopicRing(capacity));
+        synchronized (ring) {
+            long seq = ring.append(snapshot);
+            messagingTemplate.convertAndSend(topic, snapshot, Map.of(SEQUENCE_HEADER, seq, EPOCH_HEADER, epoch));
+            return seq;
+        }
+    }
+
+    /**
+     * @return The epoch of this buffer's sequence numbers, new with every boot
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns the buffered events on a topic with a sequence greater than lastSeq.
+     * A topic with no buffer is only complete for a client that has not received
+     * anything yet. A last sequence from another epoch (e.g. before a restart)
+     * is never complete, since it says nothing about this epoch's events.
+     *
+     * @param topic The destination topic
+     * @param clientEpoch The epoch of the client's last sequence, or null if it has none
+     * @param lastSeq The last sequence number the client received
+     * @return The replay result for the topic
+     */
+    public ReplayResponse replay(String topic, String clientEpoch, long lastSeq) {
+        TopicRing ring = rings.get(topic);
+        if (lastSeq != 0 && !epoch.equals(clientEpoch)) {
+            return new ReplayResponse(topic, epoch, ring == null ? 0 : ring.latest(), false, List.of());
+        }
+        if (ring == null) {
+            return new ReplayResponse(topic, epoch, 0, lastSeq == 0, List.of());
+        }
+        return ring.since(topic, epoch, lastSeq);
+    }
+
+    /**
+     * A single buffered event together with its sequence number.
+     */
+    public record ReplayEvent(long seq, JsonNode payload) {}
+
+    /**
+     * Result of a replay request. When complete is false the buffer no longer
+     * holds every missed event, or the client's sequence is from another epoch,
+     * and the client should fall back to a REST refetch and continue from
+     * latestSeq in this epoch.
+     */
+    public record ReplayResponse(String topic, String epoch, long latestSeq, boolean complete,
+                                 List<ReplayEvent> events) {}
+
+    /**
+     * Fixed-size ring of events for one topic.
+     */
+    private static final class TopicRing {
+        private final ReplayEvent[] slots;
+        private long nextSeq = 1;
+
+        TopicRing(int capacity) {
+            this.slots = new ReplayEvent[capacity];
+        }
+
+        synchronized long append(JsonNode payload) {
+            long seq = nextSeq++;
+            slots[(int) (seq % slots.length)] = new ReplayEvent(seq, payload);
+            return seq;
+        }
+
+        synchronized long latest() {
+            return nextSeq - 1;
+        }
+
+        synchronized ReplayResponse since(String topic, String epoch, long lastSeq) {
+            long latest = nextSeq - 1;
+            long oldest = Math.max(1, latest - slots.length + 1);
+            long from = Math.max(lastSeq + 1, oldest);
+
+            List<ReplayEvent> events = new ArrayList<>();
+            for (long seq = from; seq <= latest; seq++) {
+                events.add(slots[(int) (seq % slots.length)]);
+            }
+            boolean complete = lastSeq >= oldest - 1 && lastSeq <= latest;
+            return new ReplayResponse(topic, epoch, latest, complete, events);
+        }
+    }
+}
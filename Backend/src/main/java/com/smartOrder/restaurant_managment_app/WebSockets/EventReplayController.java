@@ -0,0 +1,42 @@
+package com.smartOrder.restaurant_managment_app.WebSockets;
+
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP controller that lets reconnecting clients catch up on missed events.
+ * Clients send their last received sequence for a topic, with the epoch header
+ * it arrived with, to /app/replay and receive the gap on /user/queue/replay.
+ */
+@Controller
+public class EventReplayController {
+
+    private final EventReplayBuffer replayBuffer;
+
+    /**
+     * Constructs a new EventReplayController.
+     *
+     * @param replayBuffer The buffer holding recent events per topic
+     */
+    public EventReplayController(EventReplayBuffer replayBuffer) {
+        this.replayBuffer = replayBuffer;
+    }
+
+    /**
+     * Replays buffered events newer than the client's last sequence.
+     *
+     * @param request The topic, epoch and last received sequence
+     * @return The missed events, or an incomplete marker if they were evicted
+     */
+    @MessageMapping("/replay")
+    @SendToUser(destinations = "/queue/replay", broadcast = false)
+    public EventReplayBuffer.ReplayResponse replay(ReplayRequest request) {
+        return replayBuffer.replay(request.topic(), request.epoch(), request.lastSeq());
+    }
+
+    /**
+     * Payload of a replay request.
+     */
+    public record ReplayRequest(String topic, String epoch, long lastSeq) {}
+}
@@ -1,6 +1,5 @@
 package com.smartOrder.restaurant_managment_app.WebSockets;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 /**
@@ -9,15 +8,15 @@ import org.springframework.stereotype.Service;
 @Service
 public class HelpRequestWebSocketService {
   
-    private final SimpMessagingTemplate messagingTemplate;
+    private final EventReplayBuffer replayBuffer;
 
     /**
-     * Constructs a new HelpRequestWebSocketService with the given messaging template.
+     * Constructs a new HelpRequestWebSocketService with the given replay buffer.
      * 
-     * @param messagingTemplate The messaging template used for WebSocket communication
+     * @param replayBuffer The buffer used to sequence and broadcast events
      */
-    public HelpRequestWebSocketService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public HelpRequestWebSocketService(EventReplayBuffer replayBuffer) {
+        this.replayBuffer = replayBuffer;
     }
 
     /**
@@ -26,6 +25,6 @@ public class HelpRequestWebSocketService {
      * @param helpRequest The help request object to broadcast
      */
     public void broadcastHelpRequestUpdate(Object helpRequest) {
-        messagingTemplate.convertAndSend("/topic/help-requests", helpRequest);
+        replayBuffer.publish("/topic/help-requests", helpRequest);
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.smartOrder.restaurant_managment_app.WebSockets;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Component for broadcasting menu changes to customers viewing a restaurant's menu.
+ * Events are published through the {@link EventReplayBuffer} so reconnecting
+ * clients can replay what they missed instead of refetching the whole menu.
+ */
+@Component
+public class MenuWebSocket {
+    private final EventReplayBuffer replayBuffer;
+
+    /**
+     * Availability change of a single menu item.
+     *
+     * @param itemId the menu item
+     * @param available whether the item can be ordered
+     * @param version the menu snapshot version after the change
+     */
+    public record AvailabilityEvent(Long itemId, boolean available, long version) {}
+
+    /**
+     * Constructs a new MenuWebSocket with the given replay buffer.
+     *
+     * @param replayBuffer The buffer used to sequence and broadcast events
+     */
+    public MenuWebSocket(EventReplayBuffer replayBuffer) {
+        this.replayBuffer = replayBuffer;
+    }
+
+    /**
+     * Notifies a restaurant's customers that an item was made available or unavailable.
+     *
+     * @param restaurantId The restaurant whose menu changed
+     * @param itemId The menu item that changed
+     * @param available Whether the item is now available
+     * @param version The menu snapshot version after the change
+     */
+    public void notifyAvailabilityChange(Long restaurantId, Long itemId, boolean available, long version) {
+        replayBuffer.publish("/topic/r/" + restaurantId + "/menu",
+            new AvailabilityEvent(itemId, available, version));
+    }
+}
@@ -4,23 +4,24 @@ import com.smartOrder.restaurant_managment_app.Controllers.OrderController;
 import com.smartOrder.restaurant_managment_app.Models.Order;
 import com.smartOrder.restaurant_managment_app.Models.Stats;
 import java.util.Map;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 /**
  * Component for handling WebSocket communications related to orders.
+ * Events are published through the {@link EventReplayBuffer} so reconnecting
+ * clients can replay what they missed.
  */
 @Component
 public class OrderWebSocket {
-    private final SimpMessagingTemplate messagingTemplate;
+    private final EventReplayBuffer replayBuffer;
 
     /**
-     * Constructs a new OrderWebSocket with the given messaging template.
+     * Constructs a new OrderWebSocket with the given replay buffer.
      * 
-     * @param messagingTemplate The messaging template used for WebSocket communication
+     * @param replayBuffer The buffer used to sequence and broadcast events
      */
-    public OrderWebSocket(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public OrderWebSocket(EventReplayBuffer replayBuffer) {
+        this.replayBuffer = replayBuffer;
     }
 
     /**
@@ -30,7 +31,7 @@ public class OrderWebSocket {
      * @param eventType The type of event (e.g., "NEW_ORDER", "STATUS_CHANGE")
      */
     public void sendOrderUpdateToAll(Order order, String eventType) {
-        messagingTemplate.convertAndSend("/topic/orders/" + order.getTableNumber(), 
+        replayBuffer.publish("/topic/orders/" + order.getTableNumber(), 
             new OrderController.OrderEvent(eventType, order));
     }
 
@@ -42,18 +43,18 @@ public class OrderWebSocket {
      */
     public void notifyOrderStatusChange(Order order, String previousStatus) {
         // Notify specific table
-        messagingTemplate.convertAndSend("/topic/orders/" + order.getTableNumber(),
+        replayBuffer.publish("/topic/orders/" + order.getTableNumber(),
             new OrderController.OrderEvent("STATUS_CHANGE", order));
         
         // Notify kitchen dashboard if status changed to READY
         if ("READY".equals(order.getStatusOfOrder())) {
-            messagingTemplate.convertAndSend("/topic/kitchen-orders",
+            replayBuffer.publish("/topic/kitchen-orders",
                 new OrderController.OrderEvent("READY", order));
         }
         
         // Notify waiters if status changed to READY
         if ("READY".equals(order.getStatusOfOrder())) {
-            messagingTemplate.convertAndSend("/topic/waiter-orders",
+            replayBuffer.publish("/topic/waiter-orders",
                 new OrderController.OrderEvent("READY", order));
         }
     }
@@ -64,7 +65,7 @@ public class OrderWebSocket {
      * @param tableNumber The table number whose session has ended
      */
     public void notifySessionEnded(String tableNumber) {
-        messagingTemplate.convertAndSend("/topic/session-ended/" + tableNumber,
+        replayBuffer.publish("/topic/session-ended/" + tableNumber,
             Map.of("eventType", "SESSION_ENDED", "tableNumber", tableNumber));
     }
 
@@ -74,11 +75,11 @@ public class OrderWebSocket {
      * @param order The new order to be processed by the kitchen
      */
     public void notifyNewKitchenOrder(Order order) {
-        messagingTemplate.convertAndSend("/topic/kitchen-orders", 
+        replayBuffer.publish("/topic/kitchen-orders", 
             new OrderController.OrderEvent("NEW_ORDER", order));
         
         // Also send to simpler channel (optional)
-        messagingTemplate.convertAndSend("/topic/new-orders", order);
+        replayBuffer.publish("/topic/new-orders", order);
     }
     
     /**
@@ -88,7 +89,7 @@ public class OrderWebSocket {
      */
     public void sendStatsUpdate(Stats stats) {
         // Make sure all fields are being sent
-        messagingTemplate.convertAndSend("/topic/stats-updates", Map.of(
+        replayBuffer.publish("/topic/stats-updates", Map.of(
             "todaysRevenue", stats.getTodaysRevenue(),
             "totalOrders", stats.getTotalOrders(),
             "avgOrderValue", stats.getAvgOrderValue(),
@@ -1,6 +1,9 @@
 package com.smartOrder.restaurant_managment_app.WebSockets;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -12,21 +15,37 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
-  
+
+    private final boolean virtualThreads;
+
+    /**
+     * Constructs a new WebSocketConfig.
+     *
+     * @param virtualThreads Whether STOMP channels should run on virtual threads
+     */
+    public WebSocketConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     /**
      * Configures the message broker for WebSocket communication.
-     * 
+     *
      * @param config The message broker registry to configure
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+        if (virtualThreads) {
+            // A thread per message no longer guarantees per-session ordering
+            config.setPreservePublishOrder(true);
+        }
     }
-  
+
     /**
      * Registers STOMP endpoints for WebSocket communication.
-     * 
+     *
      * @param registry The STOMP endpoint registry to configure
      */
     @Override
@@ -34,5 +53,38 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        if (virtualThreads) {
+            registry.setPreserveReceiveOrder(true);
+        }
+    }
+
+    /**
+     * Runs inbound STOMP messages on virtual threads when enabled.
+     *
+     * @param registration The inbound channel registration
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(virtualThreadExecutor("stomp-inbound-"));
+        }
+    }
+
+    /**
+     * Runs outbound STOMP messages on virtual threads when enabled.
+     *
+     * @param registration The outbound channel registration
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(virtualThreadExecutor("stomp-outbound-"));
+        }
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.smartOrder.restaurant_managment_app.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.smartOrder.restaurant_managment_app.Models.ItemDailySales;
+
+/**
+ * Repository for the materialized per-item daily sales.
+ * Item names come from the menu item when it still exists and otherwise from
+ * the name stored with the sales, so deleted items keep their history.
+ */
+public interface ItemDailySalesRepository extends JpaRepository<ItemDailySales, Long> {
+
+  /**
+   * Sums one restaurant's sales of one day per menu item.
+   * @param restaurantId The restaurant
+   * @param date The day
+   * @return Rows of menu item id, name, category, quantity and revenue in cents
+   */
+  @Query("SELECT s.menuItemId, COALESCE(MAX(m.name), MAX(s.name)), s.category, SUM(s.qty), SUM(s.revenueCents) "
+       + "FROM ItemDailySales s LEFT JOIN MenuItems m ON m.id = s.menuItemId "
+       + "WHERE s.restaurantId = :restaurantId AND s.date = :date AND s.qty > 0 "
+       + "GROUP BY s.menuItemId, s.category")
+  List<Object[]> sumByMenuItem(@Param("restaurantId") Long restaurantId, @Param("date") LocalDate date);
+
+  /**
+   * Sums one restaurant's sales of an inclusive date range per menu item.
+   * @param restaurantId The restaurant
+   * @param from First day
+   * @param to Last day
+   * @return Rows of menu item id, name, category, quantity and revenue in cents
+   */
+  @Query("SELECT s.menuItemId, COALESCE(MAX(m.name), MAX(s.name)), s.category, SUM(s.qty), SUM(s.revenueCents) "
+       + "FROM ItemDailySales s LEFT JOIN MenuItems m ON m.id = s.menuItemId "
+       + "WHERE s.restaurantId = :restaurantId AND s.date BETWEEN :from AND :to AND s.qty > 0 "
+       + "GROUP BY s.menuItemId, s.category")
+  List<Object[]> sumByMenuItemBetween(@Param("restaurantId") Long restaurantId, @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+  /**
+   * Sums one restaurant's revenue of one day per category.
+   * @param restaurantId The restaurant
+   * @param date The day
+   * @return Rows of category and revenue in cents
+   */
+  @Query("SELECT s.category, SUM(s.revenueCents) FROM ItemDailySales s "
+       + "WHERE s.restaurantId = :restaurantId AND s.date = :date AND s.qty > 0 GROUP BY s.category")
+  List<Object[]> sumRevenueByCategory(@Param("restaurantId") Long restaurantId, @Param("date") LocalDate date);
+}
@@ -4,7 +4,6 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.smartOrder.restaurant_managment_app.Models.MenuItems;
-import com.smartOrder.restaurant_managment_app.Models.Users;
 
 /**
  * Repository interface for managing MenuItems entities.
@@ -20,25 +19,46 @@ public interface MenuItemRepository extends JpaRepository<MenuItems, Long> {
   List<MenuItems> findByCategory(String category);
   
   /**
-   * Finds all menu items by admin.
-   * @param admin The admin user to filter by
+   * Finds all menu items by admin id.
+   * @param adminId The id of the admin user to filter by
    * @return List of MenuItems belonging to the admin
    */
-  List<MenuItems> findByAdmin(Users admin);
+  List<MenuItems> findByAdminId(Integer adminId);
   
   /**
-   * Finds all menu items by admin and category.
-   * @param admin The admin user to filter by
+   * Finds all menu items by admin id and category.
+   * @param adminId The id of the admin user to filter by
    * @param category The category to search for
    * @return List of MenuItems matching both criteria
    */
-  List<MenuItems> findByAdminAndCategory(Users admin, String category);
+  List<MenuItems> findByAdminIdAndCategory(Integer adminId, String category);
   
   /**
-   * Finds a menu item by ID and admin.
+   * Finds a menu item by ID and admin id.
    * @param id The ID of the menu item
-   * @param admin The admin user to filter by
+   * @param adminId The id of the admin user to filter by
    * @return Optional containing the MenuItem if found
    */
-  Optional<MenuItems> findByIdAndAdmin(Long id, Users admin);
-}
\ No newline at end of file
+  Optional<MenuItems> findByIdAndAdminId(Long id, Integer adminId);
+
+  /**
+   * Finds all available menu items across every restaurant.
+   * @return List of available MenuItems
+   */
+  List<MenuItems> findByAvailableTrue();
+
+  /**
+   * Finds all available menu items of one restaurant, ordered by category.
+   * Joins through the admin and uses the admin_id and restaurant_id indexes.
+   * @param restaurantId The restaurant owning the items' admin
+   * @return List of available MenuItems of the restaurant
+   */
+  List<MenuItems> findByAdminRestaurantIdAndAvailableTrueOrderByCategoryAscIdAsc(Long restaurantId);
+
+  /**
+   * Counts the menu items using an image.
+   * @param imageUrl The full-size image URL
+   * @return Number of menu items referencing the image
+   */
+  long countByImageUrl(String imageUrl);
+}
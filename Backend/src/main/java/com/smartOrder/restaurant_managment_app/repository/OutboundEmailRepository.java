@@ -0,0 +1,73 @@
+package com.smartOrder.restaurant_managment_app.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.smartOrder.restaurant_managment_app.Models.OutboundEmail;
+
+/**
+ * Repository interface for managing OutboundEmail entities.
+ * Provides methods for draining the email outbox.
+ */
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+  /**
+   * Finds the ids of emails in the given status that are due for a delivery attempt, oldest first.
+   * @param status The status to filter by
+   * @param now The current time to compare next attempt times against
+   * @param pageable Limits the batch size
+   * @return Ids of due emails
+   */
+  @Query("SELECT e.id FROM OutboundEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+  List<Long> findDueIds(@Param("status") OutboundEmail.Status status, @Param("now") LocalDateTime now,
+      Pageable pageable);
+
+  /**
+   * Claims the given emails for one drain by tagging them and pushing their next
+   * attempt past the lease. Emails that another instance claimed in the meantime
+   * are no longer due and are left alone.
+   * @param ids Candidate ids from {@link #findDueIds}
+   * @param status The status the emails must still have
+   * @param claimToken Token identifying this drain
+   * @param now The time the candidates were found due at
+   * @param leaseUntil When the emails become due again if this drain never finishes
+   * @return Number of emails claimed
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE OutboundEmail e SET e.claimToken = :claimToken, e.nextAttemptAt = :leaseUntil "
+       + "WHERE e.id IN :ids AND e.status = :status AND e.nextAttemptAt <= :now")
+  int claim(@Param("ids") List<Long> ids, @Param("status") OutboundEmail.Status status,
+      @Param("claimToken") String claimToken, @Param("now") LocalDateTime now,
+      @Param("leaseUntil") LocalDateTime leaseUntil);
+
+  /**
+   * Finds the emails claimed by one drain, oldest first.
+   * @param claimToken The drain's token
+   * @return List of claimed OutboundEmail entities
+   */
+  List<OutboundEmail> findByClaimTokenOrderByIdAsc(String claimToken);
+
+  /**
+   * Deletes emails in the given status that were sent before a cutoff.
+   * @param status The status to delete
+   * @param before Emails sent before this time are deleted
+   * @return Number of emails deleted
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM OutboundEmail e WHERE e.status = :status AND e.sentAt < :before")
+  int deleteSentBefore(@Param("status") OutboundEmail.Status status, @Param("before") LocalDateTime before);
+
+  /**
+   * Counts emails by status.
+   * @param status The status to count
+   * @return Number of emails with the specified status
+   */
+  long countByStatus(OutboundEmail.Status status);
+}
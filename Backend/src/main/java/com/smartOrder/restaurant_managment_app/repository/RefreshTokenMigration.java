@@ -0,0 +1,77 @@
+package com.smartOrder.restaurant_managment_app.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares refresh_tokens for the unique key on user_id before Hibernate updates
+ * the schema. Older versions stored one row per login, so a user can have
+ * several rows; {@code ddl-auto=update} cannot add the key while they exist and
+ * only logs the failure, after which the per-user upsert would insert instead of
+ * replace. Until the key exists, every user's rows except the newest are deleted.
+ * Older versions also stored the raw token; those rows are replaced by the
+ * token's Base64 SHA-256 hash, as TokenHashes computes it, so refresh tokens
+ * issued before the upgrade keep working.
+ */
+@Component(RefreshTokenMigration.BEAN_NAME)
+public class RefreshTokenMigration implements InitializingBean {
+
+    static final String BEAN_NAME = "refreshTokenMigration";
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenMigration.class);
+
+    private static final String TABLE_EXISTS_SQL = "SELECT COUNT(*) FROM information_schema.tables "
+        + "WHERE table_schema = DATABASE() AND table_name = 'refresh_tokens'";
+    private static final String UNIQUE_USER_KEY_SQL = "SELECT COUNT(*) FROM information_schema.statistics "
+        + "WHERE table_schema = DATABASE() AND table_name = 'refresh_tokens' AND column_name = 'user_id' "
+        + "AND non_unique = 0";
+    /** Raw tokens are 36-character UUIDs; hashes are 44 Base64 characters */
+    private static final String HASH_RAW_TOKENS_SQL = "UPDATE refresh_tokens "
+        + "SET token = TO_BASE64(UNHEX(SHA2(token, 256))) WHERE CHAR_LENGTH(token) = 36";
+    private static final String DELETE_OLDER_DUPLICATES_SQL = "DELETE r FROM refresh_tokens r "
+        + "JOIN refresh_tokens newer ON newer.user_id = r.user_id AND newer.id > r.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RefreshTokenMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (count(TABLE_EXISTS_SQL) == 0) {
+            return;
+        }
+        int hashed = jdbcTemplate.update(HASH_RAW_TOKENS_SQL);
+        if (hashed > 0) {
+            log.info("Replaced {} raw refresh tokens with their hashes", hashed);
+        }
+        if (count(UNIQUE_USER_KEY_SQL) > 0) {
+            return;
+        }
+        int deleted = jdbcTemplate.update(DELETE_OLDER_DUPLICATES_SQL);
+        if (deleted > 0) {
+            log.info("Deleted {} superseded refresh tokens before adding the unique key on user_id", deleted);
+        }
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Makes the entity manager factory, and with it the schema update, wait for the migration.
+     */
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(BEAN_NAME);
+        }
+    }
+}
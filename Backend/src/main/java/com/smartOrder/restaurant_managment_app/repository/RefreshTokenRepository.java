@@ -1,9 +1,11 @@
 package com.smartOrder.restaurant_managment_app.repository;
 
 import com.smartOrder.restaurant_managment_app.Models.RefreshToken;
+import com.smartOrder.restaurant_managment_app.Models.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,21 +18,48 @@ import java.util.Optional;
  */
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    
+
     /**
-     * Finds a refresh token by token string.
-     * @param token The token string to search for
+     * Finds a refresh token by its hash.
+     * @param tokenHash The token hash to search for
      * @return Optional containing the RefreshToken if found
      */
-    Optional<RefreshToken> findByToken(String token);
-    
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
     /**
      * Finds a refresh token by user ID.
      * @param userId The user ID to search for
      * @return Optional containing the RefreshToken if found
      */
     Optional<RefreshToken> findByUserId(Integer userId);
-    
+
+    /**
+     * Finds the owner of an unexpired refresh token in a single query.
+     * @param tokenHash The token hash to search for
+     * @param now The current instant to compare expiry dates against
+     * @return Optional containing the owning Users entity
+     */
+    @Query("SELECT u FROM RefreshToken r JOIN Users u ON u.id = r.userId "
+         + "WHERE r.tokenHash = :tokenHash AND r.expiryDate > :now")
+    Optional<Users> findUserByValidTokenHash(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    /**
+     * Inserts or replaces the user's refresh token in a single statement.
+     * Relies on the unique index on user_id.
+     * @param userId The user the token belongs to
+     * @param tokenHash The hash of the new token
+     * @param expiryDate When the new token expires
+     * @param createdDate When the new token was issued
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO refresh_tokens (user_id, token, expiry_date, created_date) "
+                 + "VALUES (:userId, :tokenHash, :expiryDate, :createdDate) "
+                 + "ON DUPLICATE KEY UPDATE token = VALUES(token), expiry_date = VALUES(expiry_date), "
+                 + "created_date = VALUES(created_date)", nativeQuery = true)
+    void upsertForUser(@Param("userId") Integer userId, @Param("tokenHash") String tokenHash,
+                       @Param("expiryDate") Instant expiryDate, @Param("createdDate") Instant createdDate);
+
     /**
      * Deletes all refresh tokens for a specific user.
      * @param userId The user ID whose tokens should be deleted
@@ -38,13 +67,23 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Modifying
     @Transactional
     void deleteByUserId(Integer userId);
-    
+
+    /**
+     * Deletes a refresh token by its hash.
+     * @param tokenHash The hash of the token to delete
+     */
+    @Modifying
+    @Transactional
+    void deleteByTokenHash(String tokenHash);
+
     /**
-     * Deletes all expired refresh tokens.
+     * Deletes up to batchSize expired refresh tokens.
      * @param now The current instant to compare expiry dates against
+     * @param batchSize Maximum number of rows deleted
+     * @return Number of rows deleted
      */
     @Modifying
     @Transactional
-    @Query("DELETE FROM RefreshToken r WHERE r.expiryDate < :now")
-    void deleteAllExpiredTokens(Instant now);
-}
\ No newline at end of file
+    @Query(value = "DELETE FROM refresh_tokens WHERE expiry_date < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
@@ -1,9 +1,14 @@
 package com.smartOrder.restaurant_managment_app.repository;
 
 import com.smartOrder.restaurant_managment_app.Models.Restaurant;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for managing Restaurant entities.
@@ -25,4 +30,29 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Integer>
      * @return Optional containing the Restaurant if found
      */
     Optional<Restaurant> findByCode(String code);
+    
+    /**
+     * Increases a restaurant's menu version after its menu was written.
+     * @param id The restaurant ID
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Restaurant r SET r.menuVersion = r.menuVersion + 1 WHERE r.id = :id")
+    int incrementMenuVersion(@Param("id") Long id);
+    
+    /**
+     * Reads a restaurant's menu version.
+     * @param id The restaurant ID
+     * @return The menu version, or null if the restaurant does not exist
+     */
+    @Query("SELECT r.menuVersion FROM Restaurant r WHERE r.id = :id")
+    Long findMenuVersion(@Param("id") Long id);
+    
+    /**
+     * Reads every restaurant's menu version.
+     * @return Pairs of restaurant ID and menu version
+     */
+    @Query("SELECT r.id, r.menuVersion FROM Restaurant r")
+    List<Object[]> findMenuVersions();
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.smartOrder.restaurant_managment_app.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.smartOrder.restaurant_managment_app.Models.RevokedToken;
+
+/**
+ * Repository interface for managing RevokedToken entities.
+ * Provides methods for sharing access token revocations between instances.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+  /**
+   * Finds revocations recorded after the given time.
+   * @param revokedAt Only revocations after this instant
+   * @return List of RevokedToken entities
+   */
+  List<RevokedToken> findByRevokedAtAfter(Instant revokedAt);
+
+  /**
+   * Deletes revocations of tokens that have expired anyway.
+   * @param now The current instant to compare expiry times against
+   * @return Number of rows deleted
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
+}
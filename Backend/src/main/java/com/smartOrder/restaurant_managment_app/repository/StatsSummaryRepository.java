@@ -18,4 +18,12 @@ public interface StatsSummaryRepository extends JpaRepository<Stats, Long> {
    * @return Optional containing the Stats entity if found
    */
   Optional<Stats> findFirstByDate(LocalDate date);
+
+  /**
+   * Finds the stats entries of an inclusive date range.
+   * @param from First date, inclusive
+   * @param to Last date, inclusive
+   * @return Matching Stats entities
+   */
+  List<Stats> findByDateBetween(LocalDate from, LocalDate to);
 }
\ No newline at end of file
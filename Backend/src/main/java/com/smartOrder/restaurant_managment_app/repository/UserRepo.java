@@ -1,5 +1,6 @@
 package com.smartOrder.restaurant_managment_app.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -76,4 +77,12 @@ public interface UserRepo extends JpaRepository<Users, Integer> {
    * @return true if at least one user has the role, false otherwise
    */
   boolean existsByRole(Role role);
+  
+  /**
+   * Finds users whose tokens were revoked after the given time.
+   * @param tokenVersion Only users with a token version above this value
+   * @param updatedAt Only users updated after this time
+   * @return List of Users entities
+   */
+  List<Users> findByTokenVersionGreaterThanAndUpdatedAtAfter(int tokenVersion, LocalDateTime updatedAt);
 }
\ No newline at end of file
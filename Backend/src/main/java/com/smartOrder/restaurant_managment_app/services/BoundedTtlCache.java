@@ -0,0 +1,112 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Small in-memory cache with a size bound and per-entry time-to-live.
+ * Reads are lock-free; when the cache grows past its bound, expired entries
+ * are swept first and then arbitrary entries are dropped until it fits.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param maxSize Maximum number of entries kept
+     * @param ttlMillis Default time-to-live of an entry in milliseconds
+     */
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value, loading and caching it on a miss.
+     * A null result from the loader is not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value with the default time-to-live.
+     */
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * Caches a value until the given epoch-millisecond deadline.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes a single entry.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of entries, including ones that have expired but not been swept yet.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt < now);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() > maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
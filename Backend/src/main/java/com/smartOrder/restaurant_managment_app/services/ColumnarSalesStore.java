@@ -0,0 +1,189 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.smartOrder.restaurant_managment_app.services.SalesColumns.GroupTotals;
+
+/**
+ * Optional in-memory analytics store for historical sales, enabled with
+ * {@code analytics.columnar.enabled}. Order lines of the configured history
+ * window are loaded per restaurant into {@link SalesColumns}; new lines are
+ * appended every refresh by reading past the highest loaded ordered_items id,
+ * minus a safety window of ids so lines whose transaction committed after a
+ * higher id was read are still picked up; ids already loaded inside that window
+ * are skipped. The whole store is reloaded periodically, streaming the lines
+ * instead of buffering the result, so edited or deleted orders and days leaving
+ * the window are accounted for. Breakdowns by weekday, hour and
+ * category are answered by scanning the columns, without touching the database.
+ */
+@Service
+public class ColumnarSalesStore {
+
+    private static final String LINES_SQL = "SELECT oi.id, u.restaurant_id, o.time, oi.menu_item_id, m.category, "
+        + "oi.quantity, CAST(ROUND(m.price * 100) AS SIGNED) * oi.quantity FROM ordered_items oi "
+        + "JOIN orders o ON o.id = oi.order_id JOIN menu_items m ON m.id = oi.menu_item_id "
+        + "JOIN user_password u ON u.id = m.admin_id "
+        + "WHERE oi.id > ? AND o.time >= ? AND oi.quantity > 0 ORDER BY oi.id";
+
+    /**
+     * A dimension a breakdown can be grouped by.
+     */
+    public enum Dimension { WEEKDAY, HOUR, CATEGORY }
+
+    /**
+     * One group of a breakdown; dimensions that were not grouped by are null.
+     */
+    public record BreakdownRow(DayOfWeek weekday, Integer hour, String category, long quantity, double revenue) {}
+
+    /**
+     * Sales of one restaurant over an inclusive date range, grouped by the requested
+     * dimensions. Days before {@code loadedFrom} are not held in memory.
+     */
+    public record Breakdown(LocalDate from, LocalDate to, Set<Dimension> groupBy, LocalDate loadedFrom,
+                            List<BreakdownRow> rows) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int historyDays;
+    private final long reloadMillis;
+    private final long safetyWindow;
+    private volatile Map<Long, SalesColumns> restaurants = new ConcurrentHashMap<>();
+    private volatile LocalDate loadedFrom;
+    private long lastLineId;
+    private long loadedAt;
+    /** Loaded line ids above {@code lastLineId - safetyWindow} */
+    private Set<Long> recentLineIds = new HashSet<>();
+
+    public ColumnarSalesStore(JdbcTemplate jdbcTemplate,
+                              @Value("${analytics.columnar.enabled:false}") boolean enabled,
+                              @Value("${analytics.columnar.history-days:400}") int historyDays,
+                              @Value("${analytics.columnar.reload-ms:86400000}") long reloadMillis,
+                              @Value("${analytics.columnar.safety-window:10000}") long safetyWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.historyDays = historyDays;
+        this.reloadMillis = reloadMillis;
+        this.safetyWindow = safetyWindow;
+    }
+
+    /**
+     * @return Whether the store is enabled and has been loaded
+     */
+    public boolean isAvailable() {
+        return enabled && loadedFrom != null;
+    }
+
+    /**
+     * Appends order lines added since the last refresh, or reloads everything
+     * when the store is empty or the reload interval has passed.
+     */
+    @Scheduled(fixedDelayString = "${analytics.columnar.refresh-ms:60000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        if (loadedFrom == null || System.currentTimeMillis() - loadedAt >= reloadMillis) {
+            LocalDate from = LocalDate.now().minusDays(historyDays);
+            Map<Long, SalesColumns> loaded = new ConcurrentHashMap<>();
+            Set<Long> loadedIds = new HashSet<>();
+            lastLineId = load(loaded, loadedIds, 0, from);
+            recentLineIds = loadedIds;
+            restaurants = loaded;
+            loadedFrom = from;
+            loadedAt = System.currentTimeMillis();
+        } else {
+            long afterId = Math.max(0, lastLineId - safetyWindow);
+            lastLineId = Math.max(lastLineId, load(restaurants, recentLineIds, afterId, loadedFrom));
+        }
+        forgetLinesBelowWindow(recentLineIds, lastLineId);
+    }
+
+    /**
+     * Groups a restaurant's sales over an inclusive date range.
+     * @param restaurantId The restaurant
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @param groupBy Dimensions to group by; empty for a single total
+     * @return The non-empty groups, ordered by weekday, hour and category
+     * @throws IllegalStateException if the store is disabled or not loaded yet
+     */
+    public Breakdown breakdown(Long restaurantId, LocalDate from, LocalDate to, Set<Dimension> groupBy) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Columnar analytics store is not available");
+        }
+        SalesColumns columns = restaurants.get(restaurantId);
+        if (columns == null) {
+            return new Breakdown(from, to, dimensions(groupBy), loadedFrom, List.of());
+        }
+        SalesColumns.View view = columns.view();
+        boolean byCategory = groupBy.contains(Dimension.CATEGORY);
+        List<BreakdownRow> rows = new ArrayList<>();
+        for (GroupTotals group : view.groupBy(epochMinute(from.atStartOfDay()),
+                epochMinute(to.plusDays(1).atStartOfDay()), groupBy.contains(Dimension.WEEKDAY),
+                groupBy.contains(Dimension.HOUR), byCategory)) {
+            rows.add(new BreakdownRow(group.weekday() < 0 ? null : DayOfWeek.of(group.weekday() + 1),
+                group.hour() < 0 ? null : group.hour(),
+                byCategory ? view.categories().get(group.category()) : null,
+                group.quantity(), group.revenueCents() / 100.0));
+        }
+        return new Breakdown(from, to, dimensions(groupBy), loadedFrom, rows);
+    }
+
+    /**
+     * Appends every line with an id above {@code afterId} and an order time on or after {@code from}
+     * whose id is not in {@code loadedIds} yet, adding the ids it loads. Rows are streamed so a
+     * full reload does not buffer the whole result.
+     * @return The highest line id loaded
+     */
+    private long load(Map<Long, SalesColumns> target, Set<Long> loadedIds, long afterId, LocalDate from) {
+        long[] maxId = {afterId};
+        Map<Long, SalesColumns> touched = new HashMap<>();
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        streaming.query(LINES_SQL, rs -> {
+            long lineId = rs.getLong(1);
+            if (!loadedIds.add(lineId)) {
+                return;
+            }
+            long restaurantId = rs.getLong(2);
+            SalesColumns columns = touched.computeIfAbsent(restaurantId,
+                id -> target.computeIfAbsent(id, key -> new SalesColumns()));
+            columns.append(epochMinute(rs.getTimestamp(3).toLocalDateTime()), rs.getLong(4), rs.getString(5),
+                rs.getInt(6), (int) rs.getLong(7));
+            maxId[0] = Math.max(maxId[0], lineId);
+            if (loadedIds.size() > 2 * safetyWindow) {
+                forgetLinesBelowWindow(loadedIds, maxId[0]);
+            }
+        }, afterId, Timestamp.valueOf(from.atStartOfDay()));
+        touched.values().forEach(SalesColumns::publish);
+        return maxId[0];
+    }
+
+    private void forgetLinesBelowWindow(Set<Long> loadedIds, long maxId) {
+        long windowStart = maxId - safetyWindow;
+        loadedIds.removeIf(id -> id <= windowStart);
+    }
+
+    private static Set<Dimension> dimensions(Set<Dimension> groupBy) {
+        return groupBy.isEmpty() ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(groupBy);
+    }
+
+    private static int epochMinute(LocalDateTime time) {
+        return (int) (time.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import com.smartOrder.restaurant_managment_app.repository.ItemDailySalesRepository;
+import com.smartOrder.restaurant_managment_app.services.SalesAggregator.ItemSales;
+
+/**
+ * Top-K reports over date ranges from the per-day, per-item sales rollups.
+ * A range is summed by one grouped query over item_daily_sales, so the
+ * database returns one row per item sold in the range however many days it
+ * spans, and only the K best rows are kept in memory.
+ */
+@Service
+public class DailyItemRollupService {
+
+    /**
+     * One entry of a top-items report; revenue is in currency units.
+     */
+    public record RankedItem(long menuItemId, String name, String category, long quantity, double revenue) {}
+
+    /**
+     * Top-selling items over an inclusive date range.
+     */
+    public record TopItemsReport(LocalDate from, LocalDate to, List<RankedItem> items) {}
+
+    private final ItemDailySalesRepository itemDailySalesRepo;
+
+    public DailyItemRollupService(ItemDailySalesRepository itemDailySalesRepo) {
+        this.itemDailySalesRepo = itemDailySalesRepo;
+    }
+
+    /**
+     * Ranks a restaurant's best-selling items over a date range.
+     * @param restaurantId The restaurant
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @param k Number of items wanted
+     * @return The report
+     */
+    public TopItemsReport topItems(Long restaurantId, LocalDate from, LocalDate to, int k) {
+        SalesAggregator aggregator = new SalesAggregator();
+        for (Object[] row : itemDailySalesRepo.sumByMenuItemBetween(restaurantId, from, to)) {
+            aggregator.addTotals(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                ((Number) row[3]).longValue(), ((Number) row[4]).longValue());
+        }
+        List<RankedItem> items = new ArrayList<>(k);
+        for (ItemSales sales : aggregator.topItemSales(k)) {
+            items.add(new RankedItem(sales.menuItemId(), sales.name(), sales.category(), sales.quantity(),
+                sales.revenueCents() / 100.0));
+        }
+        return new TopItemsReport(from, to, items);
+    }
+}
@@ -0,0 +1,240 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.smartOrder.restaurant_managment_app.Models.Stats;
+import com.smartOrder.restaurant_managment_app.repository.StatsSummaryRepository;
+import com.smartOrder.restaurant_managment_app.services.DayStatsAccumulator.OrderContribution;
+
+/**
+ * Read path for daily stats; reads never write.
+ * Closed days come from their persisted summary, or are calculated once when
+ * none exists, and are then cached since they no longer change. Today is
+ * served from running totals that order writes keep current and that are
+ * periodically reloaded from the orders table; writes recorded while a reload
+ * reads are replayed onto the reloaded totals so none is lost. {@link #refresh}
+ * is the only operation that recalculates and saves a summary. Ranges calculate
+ * the days missing from the cache and the database in parallel on a bounded
+ * fork-join pool.
+ * <p>
+ * Both caches are per instance and only see the writes made through this
+ * instance; other instances catch up when their live totals are resynced or
+ * their cached closed days expire, so keep both intervals short.
+ */
+@Service
+public class DailyStatsService implements DisposableBean {
+
+    private final StatsSummaryRepository statsSummaryRepo;
+    private final StatsCalculationService statsCalculationService;
+    private final BoundedTtlCache<LocalDate, Stats> closedDays;
+    private final ForkJoinPool computePool;
+    private final long timeoutMillis;
+    private final long resyncMillis;
+    private volatile DayStatsAccumulator today;
+    private volatile long todayLoadedAt;
+    private final Object liveLock = new Object();
+    private Map<Long, OrderContribution> recordedDuringReload;
+    private LocalDate reloadingDate;
+
+    public DailyStatsService(StatsSummaryRepository statsSummaryRepo,
+                             StatsCalculationService statsCalculationService,
+                             @Value("${analytics.stats-cache.max-days:1100}") int maxCachedDays,
+                             @Value("${analytics.stats-cache.ttl-ms:300000}") long cacheTtlMillis,
+                             @Value("${analytics.stats.parallelism:4}") int parallelism,
+                             @Value("${analytics.stats.timeout-ms:30000}") long timeoutMillis,
+                             @Value("${analytics.live-stats.resync-ms:30000}") long resyncMillis) {
+        this.statsSummaryRepo = statsSummaryRepo;
+        this.statsCalculationService = statsCalculationService;
+        this.closedDays = new BoundedTtlCache<>(maxCachedDays, cacheTtlMillis);
+        this.computePool = new ForkJoinPool(parallelism);
+        this.timeoutMillis = timeoutMillis;
+        this.resyncMillis = resyncMillis;
+    }
+
+    /**
+     * Returns one day's stats without writing them.
+     * @param date The day
+     * @return Cached or persisted stats of a closed day, the live totals of today,
+     *         otherwise freshly calculated stats
+     */
+    public Stats statsFor(LocalDate date) {
+        LocalDate now = LocalDate.now();
+        if (date.isBefore(now)) {
+            return closedDays.get(date, this::loadClosedDay);
+        }
+        if (date.equals(now)) {
+            return liveTotals(now).toStats();
+        }
+        return statsCalculationService.computeStats(date);
+    }
+
+    /**
+     * Returns the stats of every day of an inclusive range without writing them.
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return One entry per day, in date order
+     * @throws IllegalStateException if the calculation fails or times out
+     */
+    public List<Stats> statsBetween(LocalDate from, LocalDate to) {
+        LocalDate now = LocalDate.now();
+        Map<LocalDate, Stats> byDate = new HashMap<>();
+        boolean uncachedClosedDay = false;
+        for (LocalDate day = from; !day.isAfter(to) && day.isBefore(now); day = day.plusDays(1)) {
+            Stats cached = closedDays.get(day);
+            if (cached != null) {
+                byDate.put(day, cached);
+            } else {
+                uncachedClosedDay = true;
+            }
+        }
+        if (uncachedClosedDay) {
+            for (Stats stats : statsSummaryRepo.findByDateBetween(from, to)) {
+                if (stats.getDate().isBefore(now) && !byDate.containsKey(stats.getDate())) {
+                    byDate.put(stats.getDate(), stats);
+                    closedDays.put(stats.getDate(), stats);
+                }
+            }
+        }
+        if (!from.isAfter(now) && !to.isBefore(now)) {
+            byDate.put(now, liveTotals(now).toStats());
+        }
+
+        Map<LocalDate, ForkJoinTask<Stats>> pending = new HashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (!byDate.containsKey(day)) {
+                LocalDate date = day;
+                pending.put(date, computePool.submit(() -> statsCalculationService.computeStats(date)));
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (Map.Entry<LocalDate, ForkJoinTask<Stats>> entry : pending.entrySet()) {
+                long remaining = deadline - System.nanoTime();
+                Stats stats = entry.getValue().get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                byDate.put(entry.getKey(), stats);
+                if (entry.getKey().isBefore(now)) {
+                    closedDays.put(entry.getKey(), stats);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating stats", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to calculate stats", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out calculating stats", e);
+        } finally {
+            pending.values().forEach(task -> task.cancel(false));
+        }
+
+        List<Stats> result = new ArrayList<>(byDate.size());
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            result.add(byDate.get(day));
+        }
+        return result;
+    }
+
+    /**
+     * Applies a committed order write. Today's live totals are updated in place;
+     * a cached closed day is dropped so its next read sees the change.
+     * @param orderId The written order
+     * @param date The order's day
+     * @param contribution The order's current contribution, or null if it was deleted
+     */
+    public void recordOrder(Long orderId, LocalDate date, OrderContribution contribution) {
+        synchronized (liveLock) {
+            if (recordedDuringReload != null && date.equals(reloadingDate)) {
+                recordedDuringReload.put(orderId, contribution);
+            }
+            DayStatsAccumulator totals = today;
+            if (totals != null && totals.date().equals(date)) {
+                apply(totals, orderId, contribution);
+            }
+        }
+        closedDays.invalidate(date);
+    }
+
+    /**
+     * Recalculates a day's stats from its orders and saves them.
+     * @param date The day to recalculate
+     * @return The saved stats
+     */
+    public Stats refresh(LocalDate date) {
+        Stats saved = statsCalculationService.calculateStatsFromData(date);
+        closedDays.invalidate(date);
+        if (date.equals(LocalDate.now())) {
+            synchronized (this) {
+                reloadToday(date);
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public void destroy() {
+        computePool.shutdown();
+    }
+
+    private Stats loadClosedDay(LocalDate date) {
+        return statsSummaryRepo.findFirstByDate(date)
+            .orElseGet(() -> statsCalculationService.computeStats(date));
+    }
+
+    private DayStatsAccumulator liveTotals(LocalDate date) {
+        DayStatsAccumulator totals = today;
+        if (isCurrent(totals, date)) {
+            return totals;
+        }
+        synchronized (this) {
+            totals = today;
+            return isCurrent(totals, date) ? totals : reloadToday(date);
+        }
+    }
+
+    private boolean isCurrent(DayStatsAccumulator totals, LocalDate date) {
+        return totals != null && totals.date().equals(date)
+            && System.currentTimeMillis() - todayLoadedAt < resyncMillis;
+    }
+
+    private DayStatsAccumulator reloadToday(LocalDate date) {
+        // An order committed after the read below is missing from it, so writes
+        // recorded until the swap are replayed onto the reloaded totals
+        synchronized (liveLock) {
+            recordedDuringReload = new HashMap<>();
+            reloadingDate = date;
+        }
+        try {
+            DayStatsAccumulator totals = statsCalculationService.accumulate(date);
+            synchronized (liveLock) {
+                recordedDuringReload.forEach((orderId, contribution) -> apply(totals, orderId, contribution));
+                todayLoadedAt = System.currentTimeMillis();
+                today = totals;
+            }
+            return totals;
+        } finally {
+            synchronized (liveLock) {
+                recordedDuringReload = null;
+                reloadingDate = null;
+            }
+        }
+    }
+
+    private static void apply(DayStatsAccumulator totals, Long orderId, OrderContribution contribution) {
+        if (contribution == null) {
+            totals.remove(orderId);
+        } else {
+            totals.put(orderId, contribution);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import com.smartOrder.restaurant_managment_app.Models.Order;
+import com.smartOrder.restaurant_managment_app.Models.OrderedItems;
+import com.smartOrder.restaurant_managment_app.Models.Stats;
+
+/**
+ * Running totals behind one day's {@link Stats}.
+ * Each order's contribution is remembered by order id, so an updated order
+ * replaces its previous contribution and a deleted one is subtracted; keeping
+ * a day current costs O(items of the changed order) instead of a rescan.
+ * Thread-safe.
+ */
+public final class DayStatsAccumulator {
+
+    /**
+     * What one order adds to its day's totals. Preparation time is weighted by
+     * the number of items it applies to.
+     */
+    public record OrderContribution(long revenueCents, long items, double weightedPreparationTime,
+                                    long itemsWithPreparationTime) {
+
+        /**
+         * Computes an order's contribution; lines without a menu item or quantity are ignored.
+         * @param order The order
+         * @return The contribution
+         */
+        public static OrderContribution of(Order order) {
+            long revenueCents = 0;
+            long items = 0;
+            if (order.getItems() != null) {
+                for (OrderedItems item : order.getItems()) {
+                    if (item.getMenuItem() != null && item.getQuantity() > 0) {
+                        revenueCents += SalesAggregator.toCents(item.getMenuItem().getPrice()) * item.getQuantity();
+                        items += item.getQuantity();
+                    }
+                }
+            }
+            double preparationTime = 0.0;
+            if (order.getPreparationTime() != null) {
+                preparationTime = order.getPreparationTime();
+            } else if (order.getTime() != null && order.getReadyTime() != null) {
+                preparationTime = Duration.between(order.getTime(), order.getReadyTime()).toMinutes();
+            }
+            if (preparationTime > 0 && items > 0) {
+                return new OrderContribution(revenueCents, items, preparationTime * items, items);
+            }
+            return new OrderContribution(revenueCents, items, 0.0, 0);
+        }
+    }
+
+    private final LocalDate date;
+    private final Map<Long, OrderContribution> contributions = new HashMap<>();
+    private long revenueCents;
+    private long items;
+    private double weightedPreparationTime;
+    private long itemsWithPreparationTime;
+
+    public DayStatsAccumulator(LocalDate date) {
+        this.date = date;
+    }
+
+    /**
+     * @return The day these totals belong to
+     */
+    public LocalDate date() {
+        return date;
+    }
+
+    /**
+     * Adds an order or replaces its previous contribution.
+     * @param orderId The order's id
+     * @param contribution The order's current contribution
+     */
+    public synchronized void put(Long orderId, OrderContribution contribution) {
+        subtract(contributions.put(orderId, contribution));
+        revenueCents += contribution.revenueCents();
+        items += contribution.items();
+        weightedPreparationTime += contribution.weightedPreparationTime();
+        itemsWithPreparationTime += contribution.itemsWithPreparationTime();
+    }
+
+    /**
+     * Removes an order's contribution, if any.
+     * @param orderId The order's id
+     */
+    public synchronized void remove(Long orderId) {
+        subtract(contributions.remove(orderId));
+    }
+
+    /**
+     * Builds unsaved stats from the current totals.
+     * @return Stats for the day
+     */
+    public synchronized Stats toStats() {
+        double revenuePerItem = items == 0 ? 0.0
+            : BigDecimal.valueOf(revenueCents).divide(BigDecimal.valueOf(items * 100), 2, RoundingMode.HALF_UP)
+                .doubleValue();
+        double avgPreparationTime = itemsWithPreparationTime == 0 ? 0.0
+            : weightedPreparationTime / itemsWithPreparationTime;
+
+        Stats stats = new Stats();
+        stats.setDate(date);
+        stats.setTodaysRevenue(BigDecimal.valueOf(revenueCents, 2).doubleValue());
+        stats.setTotalOrders((long) contributions.size());
+        stats.setAvgOrderValue(revenuePerItem);
+        stats.setAvgPreparationTime(Math.round(avgPreparationTime * 100.0) / 100.0);
+        return stats;
+    }
+
+    private void subtract(OrderContribution previous) {
+        if (previous == null) {
+            return;
+        }
+        revenueCents -= previous.revenueCents();
+        items -= previous.items();
+        weightedPreparationTime -= previous.weightedPreparationTime();
+        itemsWithPreparationTime -= previous.itemsWithPreparationTime();
+    }
+}
@@ -0,0 +1,180 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.smartOrder.restaurant_managment_app.Models.OutboundEmail;
+import com.smartOrder.restaurant_managment_app.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Scheduled worker that drains the email outbox.
+ * Due messages are first claimed with a conditional update that moves their next
+ * attempt past a lease, so several application instances never send the same
+ * message twice; a claim left behind by a crashed instance expires with the
+ * lease. Claimed messages are split across a small pool of workers; each worker sends its
+ * chunk over a single SMTP connection and failed messages are retried with
+ * exponential backoff until the attempt limit is reached. Sent messages drop their
+ * body, which may hold a password reset link, and are purged after a retention period.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final long MAX_BACKOFF_MS = 3_600_000;
+
+    private final OutboundEmailRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final SimpleAsyncTaskExecutor workerExecutor;
+    private final int batchSize;
+    private final int workers;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long leaseMs;
+    private final long sentRetentionMs;
+
+    private final AtomicLong pendingCount;
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public EmailOutboxWorker(OutboundEmailRepository outboxRepository,
+                             JavaMailSender mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                             @Value("${mail.outbox.batch-size:50}") int batchSize,
+                             @Value("${mail.outbox.workers:2}") int workers,
+                             @Value("${mail.outbox.max-attempts:5}") int maxAttempts,
+                             @Value("${mail.outbox.backoff-ms:30000}") long backoffMs,
+                             @Value("${mail.outbox.lease-ms:300000}") long leaseMs,
+                             @Value("${mail.outbox.sent-retention-ms:604800000}") long sentRetentionMs) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.leaseMs = leaseMs;
+        this.sentRetentionMs = sentRetentionMs;
+
+        this.workerExecutor = new SimpleAsyncTaskExecutor("mail-");
+        this.workerExecutor.setVirtualThreads(virtualThreads);
+        this.workerExecutor.setConcurrencyLimit(workers);
+
+        this.pendingCount = meterRegistry.gauge("mail.outbox.pending", new AtomicLong());
+        this.sendTimer = meterRegistry.timer("mail.outbox.send.latency");
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent");
+        this.failedCounter = meterRegistry.counter("mail.outbox.failed");
+    }
+
+    /**
+     * Claims and sends every message that is due, then refreshes the queue depth gauge.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+    public void drainOutbox() {
+        List<OutboundEmail> batch = claimDueMessages();
+
+        if (!batch.isEmpty()) {
+            int chunkSize = (batch.size() + workers - 1) / workers;
+            List<CompletableFuture<Void>> sends = new ArrayList<>();
+            for (int from = 0; from < batch.size(); from += chunkSize) {
+                List<OutboundEmail> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+                sends.add(CompletableFuture.runAsync(() -> deliver(chunk), workerExecutor));
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+            outboxRepository.saveAll(batch);
+        }
+
+        pendingCount.set(outboxRepository.countByStatus(OutboundEmail.Status.PENDING));
+    }
+
+    /**
+     * Deletes sent messages older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        outboxRepository.deleteSentBefore(OutboundEmail.Status.SENT,
+            LocalDateTime.now().minusNanos(sentRetentionMs * 1_000_000));
+    }
+
+    private List<OutboundEmail> claimDueMessages() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboxRepository.findDueIds(OutboundEmail.Status.PENDING, now,
+            PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return List.of();
+        }
+        String claimToken = UUID.randomUUID().toString();
+        if (outboxRepository.claim(dueIds, OutboundEmail.Status.PENDING, claimToken, now,
+                now.plusNanos(leaseMs * 1_000_000)) == 0) {
+            return List.of();
+        }
+        return outboxRepository.findByClaimTokenOrderByIdAsc(claimToken);
+    }
+
+    private void deliver(List<OutboundEmail> chunk) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            OutboundEmail email = chunk.get(i);
+            messages[i] = EmailService.buildMessage(email.getRecipient(), email.getSubject(), email.getBody());
+        }
+
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                for (SimpleMailMessage message : messages) failures.put(message, e);
+            }
+        } catch (RuntimeException e) {
+            // Not only MailException: anything else would leave the chunk leased with no attempt counted
+            for (SimpleMailMessage message : messages) failures.put(message, e);
+        }
+        sample.stop(sendTimer);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < chunk.size(); i++) {
+            OutboundEmail email = chunk.get(i);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setClaimToken(null);
+            Exception failure = failures.get(messages[i]);
+            if (failure == null) {
+                email.setStatus(OutboundEmail.Status.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                email.setBody(null);
+                sentCounter.increment();
+            } else {
+                markFailedAttempt(email, failure, now);
+            }
+        }
+    }
+
+    private void markFailedAttempt(OutboundEmail email, Exception failure, LocalDateTime now) {
+        String message = String.valueOf(failure.getMessage());
+        email.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(OutboundEmail.Status.FAILED);
+            failedCounter.increment();
+        } else {
+            long delay = Math.min(backoffMs << (email.getAttempts() - 1), MAX_BACKOFF_MS);
+            email.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+        }
+    }
+}
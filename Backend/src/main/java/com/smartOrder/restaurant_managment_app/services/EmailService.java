@@ -3,31 +3,55 @@ package com.smartOrder.restaurant_managment_app.services;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.smartOrder.restaurant_managment_app.Models.OutboundEmail;
+import com.smartOrder.restaurant_managment_app.repository.OutboundEmailRepository;
 
 /**
  * Service for sending email notifications.
+ * Messages are normally queued in the outbox and delivered by {@link EmailOutboxWorker}.
  */
 @Service
 public class EmailService {
 
+    static final String FROM_ADDRESS = "noreply@yourdomain.com";
+
     private final JavaMailSender mailSender;
+    private final OutboundEmailRepository outboxRepository;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, OutboundEmailRepository outboxRepository) {
         this.mailSender = mailSender;
+        this.outboxRepository = outboxRepository;
     }
 
     /**
-     * Sends a simple email message.
+     * Sends a simple email message immediately on the calling thread.
      * @param to Recipient email address
      * @param subject Email subject
      * @param text Email content
      */
     public void sendSimpleMessage(String to, String subject, String text) {
+        mailSender.send(buildMessage(to, subject, text));
+    }
+
+    /**
+     * Queues a simple email message for asynchronous delivery.
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param text Email content
+     * @return The persisted outbox entry
+     */
+    @Transactional
+    public OutboundEmail queueSimpleMessage(String to, String subject, String text) {
+        return outboxRepository.save(new OutboundEmail(to, subject, text));
+    }
+
+    static SimpleMailMessage buildMessage(String to, String subject, String text) {
         SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("noreply@yourdomain.com");
+        message.setFrom(FROM_ADDRESS);
         message.setTo(to);
         message.setSubject(subject);
         message.setText(text);
-        mailSender.send(message);
+        return message;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the item_daily_sales table.
+ * Order writes apply the difference between an order's lines before and after
+ * the write as upserts, inside the caller's transaction, so the table always
+ * matches the committed orders. A restaurant's days can be rebuilt from order
+ * history with grouped INSERT ... SELECTs, and an empty table is backfilled at
+ * startup; both work one calendar month per transaction, so a long range does
+ * not hold one huge transaction. The backfill holds a MySQL named lock so
+ * instances starting together do not run it concurrently, and a failed
+ * backfill is logged without stopping the application; admins can then rebuild
+ * their restaurant's history through the rebuild endpoint.
+ */
+@Service
+public class ItemDailySalesService {
+
+    private static final String ORDER_LINES_SQL = "SELECT u.restaurant_id, m.id, m.name, m.category, "
+        + "SUM(oi.quantity), SUM(CAST(ROUND(m.price * 100) AS SIGNED) * oi.quantity) FROM ordered_items oi "
+        + "JOIN menu_items m ON m.id = oi.menu_item_id JOIN user_password u ON u.id = m.admin_id "
+        + "WHERE oi.order_id = ? AND oi.quantity > 0 GROUP BY u.restaurant_id, m.id, m.name, m.category";
+    private static final String UPSERT_SQL = "INSERT INTO item_daily_sales "
+        + "(restaurant_id, date, menu_item_id, name, category, qty, revenue_cents) VALUES (?, ?, ?, ?, ?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE name = VALUES(name), qty = qty + VALUES(qty), "
+        + "revenue_cents = revenue_cents + VALUES(revenue_cents)";
+    private static final String DELETE_RANGE_SQL =
+        "DELETE FROM item_daily_sales WHERE restaurant_id = ? AND date >= ? AND date <= ?";
+    private static final String INSERT_SELECT_SQL = "INSERT INTO item_daily_sales "
+        + "(restaurant_id, date, menu_item_id, name, category, qty, revenue_cents) "
+        + "SELECT u.restaurant_id, DATE(o.time), m.id, MAX(m.name), MAX(m.category), SUM(oi.quantity), "
+        + "SUM(CAST(ROUND(m.price * 100) AS SIGNED) * oi.quantity) FROM ordered_items oi "
+        + "JOIN orders o ON o.id = oi.order_id JOIN menu_items m ON m.id = oi.menu_item_id "
+        + "JOIN user_password u ON u.id = m.admin_id "
+        + "WHERE o.time >= ? AND o.time < ? AND oi.quantity > 0 ";
+    private static final String GROUP_BY_SQL = "GROUP BY u.restaurant_id, DATE(o.time), m.id";
+    private static final String REBUILD_RANGE_SQL = INSERT_SELECT_SQL + "AND u.restaurant_id = ? " + GROUP_BY_SQL;
+    private static final String BACKFILL_RANGE_SQL = INSERT_SELECT_SQL + GROUP_BY_SQL;
+    private static final String ORDER_TIME_SQL = "SELECT time FROM orders WHERE id = ?";
+    private static final String ORDER_DATES_SQL = "SELECT MIN(time), MAX(time) FROM orders";
+    private static final String HAS_ROWS_SQL = "SELECT EXISTS(SELECT 1 FROM item_daily_sales)";
+    private static final String BACKFILL_LOCK = "item_daily_sales_backfill";
+
+    private static final Logger log = LoggerFactory.getLogger(ItemDailySalesService.class);
+
+    /**
+     * One order's totals for one menu item.
+     */
+    public record OrderLineTotals(long restaurantId, long menuItemId, String name, String category, long quantity,
+                                  long revenueCents) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate chunkTemplate;
+
+    public ItemDailySalesService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Each month commits on its own, also while the backfill's locked transaction is open
+        this.chunkTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reads an order's persisted lines, grouped by menu item. Pending entity
+     * changes must be flushed first.
+     * @param orderId The order
+     * @return The order's totals per menu item; empty for an unknown order
+     */
+    public List<OrderLineTotals> orderLines(long orderId) {
+        return jdbcTemplate.query(ORDER_LINES_SQL, (rs, rowNum) -> new OrderLineTotals(rs.getLong(1),
+            rs.getLong(2), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6)), orderId);
+    }
+
+    /**
+     * Reads the day a persisted order is stored under, before pending entity
+     * changes are flushed.
+     * @param orderId The order
+     * @return The order's stored day, or null for an unknown order
+     */
+    public LocalDate orderDate(long orderId) {
+        List<LocalDate> dates = jdbcTemplate.query(ORDER_TIME_SQL,
+            (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime().toLocalDate(), orderId);
+        return dates.isEmpty() ? null : dates.get(0);
+    }
+
+    /**
+     * Adds order lines to, or with a negative sign subtracts them from, a day's sales.
+     * @param date The orders' day
+     * @param lines Lines from {@link #orderLines}
+     * @param sign 1 to add, -1 to subtract
+     */
+    public void apply(LocalDate date, List<OrderLineTotals> lines, int sign) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(lines.size());
+        for (OrderLineTotals line : lines) {
+            batch.add(new Object[] {line.restaurantId(), Date.valueOf(date), line.menuItemId(), line.name(),
+                line.category(), sign * line.quantity(), sign * line.revenueCents()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch, new int[] {Types.BIGINT, Types.DATE, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT});
+    }
+
+    /**
+     * Recomputes a restaurant's sales of an inclusive date range from order
+     * history, one calendar month per transaction. Callers bound the range.
+     * @param restaurantId The restaurant
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return Number of rows written
+     */
+    public int rebuild(long restaurantId, LocalDate from, LocalDate to) {
+        return inMonthlyChunks(from, to, (start, end) -> {
+            jdbcTemplate.update(DELETE_RANGE_SQL, restaurantId, Date.valueOf(start), Date.valueOf(end));
+            return jdbcTemplate.update(REBUILD_RANGE_SQL, Timestamp.valueOf(start.atStartOfDay()),
+                Timestamp.valueOf(end.plusDays(1).atStartOfDay()), restaurantId);
+        });
+    }
+
+    /**
+     * Fills the empty table for every restaurant and day that has orders.
+     * @return Number of rows written
+     */
+    private int backfillAll() {
+        List<LocalDate[]> bounds = jdbcTemplate.query(ORDER_DATES_SQL, (rs, rowNum) -> {
+            Timestamp first = rs.getTimestamp(1);
+            Timestamp last = rs.getTimestamp(2);
+            return first == null ? null
+                : new LocalDate[] {first.toLocalDateTime().toLocalDate(), last.toLocalDateTime().toLocalDate()};
+        });
+        if (bounds.isEmpty() || bounds.get(0) == null) {
+            return 0;
+        }
+        return inMonthlyChunks(bounds.get(0)[0], bounds.get(0)[1], (start, end) ->
+            jdbcTemplate.update(BACKFILL_RANGE_SQL, Timestamp.valueOf(start.atStartOfDay()),
+                Timestamp.valueOf(end.plusDays(1).atStartOfDay())));
+    }
+
+    private int inMonthlyChunks(LocalDate from, LocalDate to, BiFunction<LocalDate, LocalDate, Integer> chunk) {
+        int rows = 0;
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusMonths(1).withDayOfMonth(1)) {
+            LocalDate monthEnd = start.withDayOfMonth(start.lengthOfMonth());
+            LocalDate end = monthEnd.isAfter(to) ? to : monthEnd;
+            LocalDate chunkStart = start;
+            Integer written = chunkTemplate.execute(status -> chunk.apply(chunkStart, end));
+            rows += written == null ? 0 : written;
+        }
+        return rows;
+    }
+
+    /**
+     * Fills the table from order history the first time the application starts with it.
+     * Skipped when another instance holds the backfill lock. Months are committed
+     * while the lock is held, so an instance that gets the lock afterwards finds
+     * the table filled and skips it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                Integer locked = jdbcTemplate.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, BACKFILL_LOCK);
+                if (locked == null || locked != 1) {
+                    log.info("Another instance is backfilling item_daily_sales; skipping");
+                    return 0;
+                }
+                try {
+                    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_ROWS_SQL, Boolean.class)) ? 0 : backfillAll();
+                } finally {
+                    jdbcTemplate.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, BACKFILL_LOCK);
+                }
+            });
+            if (rows != null && rows > 0) {
+                log.info("Backfilled {} item_daily_sales rows", rows);
+            }
+        } catch (RuntimeException e) {
+            log.error("Backfill of item_daily_sales failed; admins can rebuild it with POST /api/orders/item-sales/rebuild", e);
+        }
+    }
+}
@@ -1,41 +1,119 @@
 package com.smartOrder.restaurant_managment_app.services;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import com.smartOrder.restaurant_managment_app.Models.UserPrinciple;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * Service for JWT token generation and validation.
+ * Signing keys and the parser are built once at startup. Tokens are signed with
+ * the current key and carry its id ("kid"); older keys listed in
+ * jwt.previous-keys stay valid for verification so secrets can be rotated.
  */
 @Service
 public class JWTService {
-    
-    @Value("${jwt.secret}")
-    private String secretKey;
-    
-    @Value("${jwt.expiration}")
-    private long expiration;
+
+    private final long expiration;
+    private final String signingKeyId;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
+
+    /**
+     * Constructs the service and precomputes keys and parser.
+     *
+     * @param secret Base64 secret used to sign new tokens
+     * @param signingKeyId Key id written into new tokens
+     * @param previousKeys Comma-separated kid:base64Secret pairs still accepted for verification
+     * @param expiration Access token lifetime in milliseconds
+     */
+    public JWTService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.key-id:default}") String signingKeyId,
+                      @Value("${jwt.previous-keys:}") String previousKeys,
+                      @Value("${jwt.expiration}") long expiration) {
+        this.expiration = expiration;
+        this.signingKeyId = signingKeyId;
+        this.signingKey = hmacKey(secret);
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        for (String entry : previousKeys.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator > 0) {
+                keys.put(entry.substring(0, separator).trim(), hmacKey(entry.substring(separator + 1).trim()));
+            }
+        }
+        keys.put(signingKeyId, signingKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        // Tokens issued before key ids were introduced have no kid
+                        if (header.getKeyId() == null) {
+                            return signingKey;
+                        }
+                        SecretKey key = verificationKeys.get(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verified contents of an access token.
+     *
+     * @param username the token subject
+     * @param roles granted authorities, empty for username-only tokens
+     * @param userId the user's database id, or null
+     * @param restaurantId the user's restaurant, or null
+     * @param tokenVersion the user's token version, or null for legacy tokens
+     * @param tokenId the token's own id ("jti"), or null for legacy tokens
+     * @param issuedAt when the token was issued
+     * @param expiresAt when the token expires
+     */
+    public record TokenClaims(String username, List<String> roles, Integer userId, Long restaurantId,
+                              Integer tokenVersion, String tokenId, Instant issuedAt, Instant expiresAt) {}
 
     /**
      * Generates a JWT token for the given user details.
+     * Every token gets a random id so it can be revoked on its own.
+     * Tokens for database users also carry userId, restaurantId and the
+     * token version so they can be authorized without a user lookup.
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList()));
+        if (userDetails instanceof UserPrinciple principal) {
+            claims.put("userId", principal.getUserId());
+            claims.put("restaurantId", principal.getRestaurantId());
+            claims.put("ver", principal.getTokenVersion());
+        }
         return buildToken(claims, userDetails.getUsername());
     }
 
@@ -48,56 +126,60 @@ public class JWTService {
     }
 
     private String buildToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(signingKeyId).and()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getKey())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
 
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+    private static SecretKey hmacKey(String base64Secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(base64Secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
-    public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimResolver.apply(claims);
+    /**
+     * Parses the token once, verifying signature and expiry.
+     * Throws a JwtException if the token is invalid or expired.
+     */
+    public TokenClaims parseAndValidate(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        List<?> roles = claims.get("roles", List.class);
+        return new TokenClaims(
+                claims.getSubject(),
+                roles == null ? List.of() : roles.stream().map(Object::toString).toList(),
+                claims.get("userId", Integer.class),
+                claims.get("restaurantId", Long.class),
+                claims.get("ver", Integer.class),
+                claims.getId(),
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String extractUserName(String token) {
+        return parseAndValidate(token).username();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUserName(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        TokenClaims claims = parseAndValidate(token);
+        return claims.username().equals(userDetails.getUsername()) && claims.expiresAt().isAfter(Instant.now());
     }
 
     public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parseAndValidate(token).expiresAt().isBefore(Instant.now());
     }
 
     /**
      * Checks if token will expire within 5 minutes.
      */
     public boolean willExpireSoon(String token) {
-        Date expiration = extractExpiration(token);
-        Date now = new Date();
-        return expiration.getTime() - now.getTime() < 300000;
+        Instant expiresAt = parseAndValidate(token).expiresAt();
+        return expiresAt.toEpochMilli() - System.currentTimeMillis() < 300000;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.awt.geom.AffineTransform;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads the EXIF Orientation tag of a JPEG file and maps it to the transform
+ * that displays the decoded pixels upright. Phone cameras store portrait photos
+ * as landscape pixels plus this tag, and ImageIO ignores it, so without the
+ * transform re-encoded photos end up sideways. Only the APP1 segments before
+ * the image data are read.
+ */
+final class JpegOrientation {
+
+    /** Pixels are already upright */
+    static final int NORMAL = 1;
+
+    private static final int SOI = 0xFFD8;
+    private static final int APP1 = 0xFFE1;
+    private static final int SOS = 0xFFDA;
+    private static final int EOI = 0xFFD9;
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int EXIF_HEADER_LENGTH = 6;
+
+    private JpegOrientation() {}
+
+    /**
+     * @param file A JPEG file, or any other file
+     * @return The orientation from 1 to 8, or {@link #NORMAL} if the file is not
+     *         a JPEG or has no valid Orientation tag
+     * @throws IOException if the file cannot be read
+     */
+    static int read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readUnsignedShort() != SOI) {
+                return NORMAL;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == SOS || marker == EOI) {
+                    return NORMAL;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return NORMAL;
+                }
+                if (marker == APP1) {
+                    int orientation = fromExif(in.readNBytes(length));
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return NORMAL;
+        }
+    }
+
+    /**
+     * Maps an orientation to the transform from stored pixels to upright pixels.
+     * @param orientation The EXIF orientation, 1 to 8
+     * @param width Width of the stored pixels
+     * @param height Height of the stored pixels
+     * @return The transform; orientations 5 to 8 swap width and height
+     */
+    static AffineTransform transform(int orientation, int width, int height) {
+        return switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> new AffineTransform();
+        };
+    }
+
+    /**
+     * @return Whether the orientation turns the image by 90 degrees, swapping width and height
+     */
+    static boolean swapsDimensions(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    /**
+     * @param segment Content of an APP1 segment
+     * @return The orientation, {@link #NORMAL} for EXIF without a valid tag, or 0
+     *         if the segment is not EXIF (for example XMP)
+     */
+    private static int fromExif(byte[] segment) {
+        if (segment.length < EXIF_HEADER_LENGTH + 8 || segment[0] != 'E' || segment[1] != 'x'
+                || segment[2] != 'i' || segment[3] != 'f' || segment[4] != 0 || segment[5] != 0) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(segment, EXIF_HEADER_LENGTH, segment.length - EXIF_HEADER_LENGTH).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return NORMAL;
+        }
+        if (tiff.getShort(2) != 42) {
+            return NORMAL;
+        }
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd > tiff.limit() - 2) {
+            return NORMAL;
+        }
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry > tiff.limit() - 12) {
+                break;
+            }
+            if ((tiff.getShort(entry) & 0xFFFF) == ORIENTATION_TAG) {
+                int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                return orientation >= 1 && orientation <= 8 ? orientation : NORMAL;
+            }
+        }
+        return NORMAL;
+    }
+}
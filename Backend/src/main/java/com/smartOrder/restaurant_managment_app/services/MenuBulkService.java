@@ -0,0 +1,489 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.InvalidImageException;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.InvalidMenuImportException;
+import com.smartOrder.restaurant_managment_app.services.MenuImageService.ImageVariants;
+
+/**
+ * Bulk import and export of a restaurant's menu.
+ * Imports are read incrementally from CSV or JSON, validated row by row and
+ * inserted in JDBC batches inside a single transaction, so a bad row rolls the
+ * whole import back. Exports stream rows straight from the database to the
+ * response in the same formats, so an export can be imported again; the
+ * MySQL driver is asked to stream the result set row by row instead of
+ * buffering the whole menu. Text that a spreadsheet would run as a formula is
+ * prefixed with an apostrophe in CSV exports, and the prefix is dropped again
+ * when the CSV is imported. A large import is uploaded as one zip archive
+ * holding the items file and the images; its entries are read straight from
+ * the request body with a size limit on each, so nothing is spooled by the
+ * servlet container first.
+ */
+@Service
+public class MenuBulkService {
+
+    private static final String INSERT_SQL = "INSERT INTO menu_items "
+        + "(name, description, price, category, image_url, medium_image_url, thumbnail_url, available, admin_id) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EXPORT_SQL = "SELECT name, description, price, category, available, image_url "
+        + "FROM menu_items WHERE admin_id = ? ORDER BY category, id";
+    private static final List<String> CSV_COLUMNS =
+        List.of("name", "description", "price", "category", "available", "image");
+
+    /**
+     * One imported or exported menu item. {@code image} is either the name of a
+     * file in the uploaded image archive or an existing {@code /uploads/} URL.
+     */
+    public record MenuRow(String name, String description, Double price, String category,
+                          Boolean available, String image) {}
+
+    /**
+     * An unpacked import archive: its items file, spooled to a temporary file the
+     * caller deletes, and the images stored from it by file name.
+     */
+    public record ImportArchive(Path items, boolean csv, Map<String, ImageVariants> images) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MenuImageService menuImageService;
+    private final int batchSize;
+    private final int maxItems;
+    private final int maxImages;
+    private final long maxItemsBytes;
+
+    public MenuBulkService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MenuImageService menuImageService,
+                           @Value("${menu.bulk.batch-size:100}") int batchSize,
+                           @Value("${menu.bulk.max-items:2000}") int maxItems,
+                           @Value("${menu.bulk.max-images:500}") int maxImages,
+                           @Value("${menu.bulk.max-items-bytes:8388608}") long maxItemsBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of reading the whole result
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.objectMapper = objectMapper;
+        this.menuImageService = menuImageService;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+        this.maxImages = maxImages;
+        this.maxItemsBytes = maxItemsBytes;
+    }
+
+    /**
+     * Stores every image of a zip archive, keyed by file name without directories.
+     * If the archive is rejected part way, the images stored so far are discarded.
+     * @param zip The archive's content
+     * @return Stored variants by file name
+     * @throws InvalidMenuImportException if the archive has too many files
+     * @throws InvalidImageException if an image is invalid
+     * @throws IOException if the archive cannot be read
+     */
+    public Map<String, ImageVariants> storeImages(InputStream zip) throws IOException {
+        Map<String, ImageVariants> images = new HashMap<>();
+        try (ZipInputStream entries = new ZipInputStream(zip)) {
+            ZipEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                storeImage(images, entry, entries);
+            }
+        } catch (RuntimeException | IOException e) {
+            discardImages(images);
+            throw e;
+        }
+        return images;
+    }
+
+    /**
+     * Unpacks an import archive holding an {@code items.csv} or {@code items.json}
+     * file at its root and the images the rows refer to. The items file is copied
+     * to a temporary file and every other entry is stored as an image, so the
+     * archive is read once, in order, without being buffered.
+     * If the archive is rejected, the images stored so far are discarded.
+     * @param zip The archive's content
+     * @return The unpacked archive
+     * @throws InvalidMenuImportException if the items file is missing, repeated or too large,
+     *         or the archive has too many images
+     * @throws InvalidImageException if an image is invalid
+     * @throws IOException if the archive cannot be read
+     */
+    public ImportArchive unpackArchive(InputStream zip) throws IOException {
+        Map<String, ImageVariants> images = new HashMap<>();
+        Path items = null;
+        boolean csv = false;
+        try (ZipInputStream entries = new ZipInputStream(zip)) {
+            ZipEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String name = entry.getName().toLowerCase(Locale.ROOT);
+                if (name.equals("items.csv") || name.equals("items.json")) {
+                    if (items != null) {
+                        throw new InvalidMenuImportException("Archive has more than one items file");
+                    }
+                    items = Files.createTempFile("menu-import-", ".tmp");
+                    csv = name.endsWith(".csv");
+                    copyItems(entries, items);
+                } else {
+                    storeImage(images, entry, entries);
+                }
+            }
+            if (items == null) {
+                throw new InvalidMenuImportException("Archive has no items.csv or items.json");
+            }
+        } catch (RuntimeException | IOException e) {
+            discardImages(images);
+            if (items != null) {
+                Files.deleteIfExists(items);
+            }
+            throw e;
+        }
+        return new ImportArchive(items, csv, images);
+    }
+
+    /**
+     * Deletes images stored for an import that did not commit, unless a menu
+     * item already used them before the import.
+     * @param images Images stored by {@link #storeImages}
+     */
+    public void discardImages(Map<String, ImageVariants> images) {
+        for (ImageVariants variants : images.values()) {
+            menuImageService.deleteIfUnused(variants.fullUrl());
+        }
+    }
+
+    /**
+     * Imports menu items for an admin in one transaction.
+     * @param in The CSV or JSON content
+     * @param csv Whether the content is CSV (otherwise a JSON array of rows)
+     * @param adminId The admin the items belong to
+     * @param images Images uploaded with the import, by file name
+     * @return Number of imported items
+     * @throws InvalidMenuImportException if the content is malformed or a row is invalid; nothing is imported
+     * @throws IOException if the content cannot be read; nothing is imported
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public int importItems(InputStream in, boolean csv, Integer adminId, Map<String, ImageVariants> images)
+            throws IOException {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        int imported = 0;
+        if (csv) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            skipByteOrderMark(reader);
+            List<String> header = readCsvRecord(reader);
+            if (header == null) {
+                return 0;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> record;
+            while ((record = readCsvRecord(reader)) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                imported = add(batch, toRow(record, columns, imported + 1), imported, adminId, images);
+            }
+        } else {
+            try (JsonParser parser = objectMapper.createParser(in)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new InvalidMenuImportException("Expected a JSON array of menu items");
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    imported = add(batch, parser.readValueAs(MenuRow.class), imported, adminId, images);
+                }
+            } catch (JsonProcessingException e) {
+                throw new InvalidMenuImportException("Row " + (imported + 1) + ": " + e.getOriginalMessage(), e);
+            }
+        }
+        flush(batch);
+        return imported;
+    }
+
+    /**
+     * Streams an admin's menu as CSV.
+     * @param adminId The admin whose items are exported
+     * @param out The response stream
+     * @throws IOException if the stream cannot be written
+     */
+    public void exportCsv(Integer adminId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRecord(writer, CSV_COLUMNS);
+        streamingJdbcTemplate.query(EXPORT_SQL, rs -> {
+            try {
+                writeCsvRecord(writer, List.of(formulaSafe(rs.getString(1)), formulaSafe(rs.getString(2)),
+                    String.valueOf(rs.getDouble(3)), formulaSafe(rs.getString(4)),
+                    String.valueOf(rs.getBoolean(5)), nullToEmpty(rs.getString(6))));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write menu export", e);
+            }
+        }, adminId);
+        writer.flush();
+    }
+
+    /**
+     * Streams an admin's menu as a JSON array of rows.
+     * @param adminId The admin whose items are exported
+     * @param out The response stream
+     * @throws IOException if the stream cannot be written
+     */
+    public void exportJson(Integer adminId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            streamingJdbcTemplate.query(EXPORT_SQL, rs -> {
+                try {
+                    generator.writeObject(new MenuRow(rs.getString(1), rs.getString(2), rs.getDouble(3),
+                        rs.getString(4), rs.getBoolean(5), rs.getString(6)));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to write menu export", e);
+                }
+            }, adminId);
+            generator.writeEndArray();
+        }
+    }
+
+    private void storeImage(Map<String, ImageVariants> images, ZipEntry entry, InputStream content)
+            throws IOException {
+        if (images.size() >= maxImages) {
+            throw new InvalidMenuImportException("Image archive has more than " + maxImages + " files");
+        }
+        String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+        try {
+            images.put(name, menuImageService.store(content));
+        } catch (InvalidImageException e) {
+            throw new InvalidImageException(name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void copyItems(InputStream in, Path target) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxItemsBytes) {
+                    throw new InvalidMenuImportException("Items file exceeds " + maxItemsBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private int add(List<Object[]> batch, MenuRow row, int imported, Integer adminId,
+                    Map<String, ImageVariants> images) {
+        int rowNumber = imported + 1;
+        if (rowNumber > maxItems) {
+            throw new InvalidMenuImportException("Import has more than " + maxItems + " items");
+        }
+        if (row.name() == null || row.name().isBlank()) {
+            throw new InvalidMenuImportException("Row " + rowNumber + ": name is required");
+        }
+        if (row.category() == null || row.category().isBlank()) {
+            throw new InvalidMenuImportException("Row " + rowNumber + ": category is required");
+        }
+        if (row.price() == null || row.price() < 0 || row.price().isNaN() || row.price().isInfinite()) {
+            throw new InvalidMenuImportException("Row " + rowNumber + ": price must be a non-negative number");
+        }
+        ImageVariants image = resolveImage(row.image(), images, rowNumber);
+        batch.add(new Object[] {row.name().trim(), row.description(), row.price(), row.category().trim(),
+            image == null ? null : image.fullUrl(), image == null ? null : image.mediumUrl(),
+            image == null ? null : image.thumbnailUrl(), row.available() == null || row.available(), adminId});
+        if (batch.size() >= batchSize) {
+            flush(batch);
+        }
+        return rowNumber;
+    }
+
+    private ImageVariants resolveImage(String image, Map<String, ImageVariants> images, int rowNumber) {
+        if (image == null || image.isBlank()) {
+            return null;
+        }
+        ImageVariants variants = images.get(image.trim());
+        if (variants == null) {
+            variants = menuImageService.existingVariants(image.trim());
+        }
+        if (variants == null) {
+            throw new InvalidMenuImportException("Row " + rowNumber + ": image " + image + " not found");
+        }
+        return variants;
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, new int[] {Types.VARCHAR, Types.VARCHAR, Types.DOUBLE,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN, Types.INTEGER});
+        batch.clear();
+    }
+
+    private MenuRow toRow(List<String> record, Map<String, Integer> columns, int rowNumber) {
+        String price = field(record, columns, "price");
+        Double parsedPrice;
+        try {
+            parsedPrice = price == null || price.isBlank() ? null : Double.valueOf(price.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidMenuImportException("Row " + rowNumber + ": price must be a non-negative number", e);
+        }
+        return new MenuRow(unescapeFormula(field(record, columns, "name")),
+            unescapeFormula(field(record, columns, "description")), parsedPrice,
+            unescapeFormula(field(record, columns, "category")), parseAvailable(field(record, columns, "available"), rowNumber),
+            field(record, columns, "image"));
+    }
+
+    /**
+     * Parses the available column strictly, so a typo is not imported as unavailable.
+     * @return The value, or null if the field is empty
+     */
+    private static Boolean parseAvailable(String value, int rowNumber) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (trimmed.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new InvalidMenuImportException("Row " + rowNumber + ": available must be true or false");
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    /**
+     * Skips the byte order mark spreadsheet programs put in front of UTF-8 CSV files,
+     * which would otherwise become part of the first column's name.
+     */
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    /**
+     * Prefixes text that a spreadsheet would evaluate as a formula with an apostrophe.
+     * @return The value, escaped if needed, or an empty string for null
+     */
+    private static String formulaSafe(String value) {
+        if (value == null) {
+            return "";
+        }
+        return startsLikeFormula(value, 0) ? "'" + value : value;
+    }
+
+    /**
+     * Drops the apostrophe {@link #formulaSafe} put in front of formula-like text.
+     */
+    private static String unescapeFormula(String value) {
+        return value != null && value.startsWith("'") && startsLikeFormula(value, 1) ? value.substring(1) : value;
+    }
+
+    private static boolean startsLikeFormula(String value, int index) {
+        if (value.length() <= index) {
+            return false;
+        }
+        char first = value.charAt(index);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    /**
+     * Reads one RFC 4180 record, allowing quoted fields with commas, quotes and line breaks.
+     * @return The record's fields, or null at the end of input
+     */
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void writeCsvRecord(Writer writer, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = fields.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
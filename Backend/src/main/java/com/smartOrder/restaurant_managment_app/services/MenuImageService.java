@@ -0,0 +1,385 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.ImageProcessingBusyException;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.InvalidImageException;
+import com.smartOrder.restaurant_managment_app.repository.MenuItemRepository;
+
+/**
+ * Stores uploaded menu photos as resized JPEG variants.
+ * Uploads are streamed to a temporary file while being hashed, so they are
+ * never held in memory whole, and photos that are already stored are not
+ * processed again. New uploads are validated by decoding them, subsampled
+ * while decoding to no more than the full variant needs, turned upright
+ * according to their EXIF orientation, re-encoded without their original
+ * metadata, and written as thumbnail, medium and full variants named after the
+ * hash of the uploaded content, so identical photos are stored once. Resizing
+ * runs on a small dedicated thread pool so bursts of uploads cannot starve
+ * order traffic.
+ */
+@Service
+public class MenuImageService implements DisposableBean {
+
+    private static final String URL_PREFIX = "/uploads/";
+    private static final Set<String> ACCEPTED_FORMATS = Set.of("jpeg", "png", "gif", "bmp");
+
+    /**
+     * A stored image variant: its file suffix and longest edge in pixels.
+     */
+    private enum Variant {
+        THUMBNAIL("-thumb", 240), MEDIUM("-medium", 720), FULL("", 1600);
+
+        private final String suffix;
+        private final int maxEdge;
+
+        Variant(String suffix, int maxEdge) {
+            this.suffix = suffix;
+            this.maxEdge = maxEdge;
+        }
+    }
+
+    /**
+     * Public URLs of the stored variants of one image.
+     */
+    public record ImageVariants(String fullUrl, String mediumUrl, String thumbnailUrl) {}
+
+    private final MenuItemRepository menuItemRepo;
+    private final Path uploadDir = Paths.get("uploads");
+    private final ThreadPoolExecutor resizeExecutor;
+    private final long timeoutMillis;
+    private final long maxUploadBytes;
+    private final long maxPixels;
+    private final float jpegQuality;
+
+    public MenuImageService(MenuItemRepository menuItemRepo,
+                            @Value("${media.image.threads:2}") int threads,
+                            @Value("${media.image.queue:16}") int queueCapacity,
+                            @Value("${media.image.timeout-ms:15000}") long timeoutMillis,
+                            @Value("${media.image.max-upload-bytes:15728640}") long maxUploadBytes,
+                            @Value("${media.image.max-pixels:25000000}") long maxPixels,
+                            @Value("${media.image.jpeg-quality:0.82}") float jpegQuality) {
+        this.menuItemRepo = menuItemRepo;
+        this.timeoutMillis = timeoutMillis;
+        this.maxUploadBytes = maxUploadBytes;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.resizeExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-resize-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        try {
+            Files.createDirectories(uploadDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create upload folder", e);
+        }
+    }
+
+    /**
+     * Validates an uploaded photo and stores its resized variants.
+     * The container's multipart limits already stop oversized parts; the
+     * declared size is checked here too so the upload is not read needlessly.
+     * @param imageFile The uploaded photo
+     * @return URLs of the stored variants
+     * @throws InvalidImageException if the upload is too large or not a supported image
+     * @throws ImageProcessingBusyException if the resize pool is saturated or times out
+     * @throws IOException if the upload cannot be read or written
+     */
+    public ImageVariants store(MultipartFile imageFile) throws IOException {
+        if (imageFile.getSize() > maxUploadBytes) {
+            throw new InvalidImageException("Image exceeds the upload size limit");
+        }
+        try (InputStream in = imageFile.getInputStream()) {
+            return store(in);
+        }
+    }
+
+    /**
+     * Validates a photo read from a stream and stores its resized variants.
+     * The stream is read to its end but not closed.
+     * @param in The photo's content
+     * @return URLs of the stored variants
+     * @throws InvalidImageException if the photo is too large or not a supported image
+     * @throws ImageProcessingBusyException if the resize pool is saturated or times out
+     * @throws IOException if the photo cannot be read or written
+     */
+    public ImageVariants store(InputStream in) throws IOException {
+        Path upload = Files.createTempFile("menu-upload-", ".tmp");
+        try {
+            String hash = copyAndHash(in, upload);
+            if (!Files.exists(variantPath(hash, Variant.FULL))) {
+                runBounded(hash, upload);
+            }
+            return variantsOf(hash);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * Looks up the variants of an image that is already stored.
+     * Images stored before variants existed only have their full-size URL.
+     * @param imageUrl The full-size image URL
+     * @return The stored variants, or null if the image does not exist
+     */
+    public ImageVariants existingVariants(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)
+                || resolveUpload(imageUrl.substring(URL_PREFIX.length())) == null) {
+            return null;
+        }
+        String filename = imageUrl.substring(URL_PREFIX.length());
+        if (filename.endsWith(".jpg")) {
+            String hash = filename.substring(0, filename.length() - ".jpg".length());
+            if (Files.exists(variantPath(hash, Variant.MEDIUM)) && Files.exists(variantPath(hash, Variant.THUMBNAIL))) {
+                return variantsOf(hash);
+            }
+        }
+        return new ImageVariants(imageUrl, null, null);
+    }
+
+    /**
+     * Deletes an image and its variants unless another menu item still uses it.
+     * Older images stored without variants are deleted as a single file.
+     * @param imageUrl The full-size image URL stored on the menu item
+     */
+    public void deleteIfUnused(String imageUrl) {
+        if (imageUrl == null || menuItemRepo.countByImageUrl(imageUrl) > 0) {
+            return;
+        }
+        String filename = imageUrl.replace(URL_PREFIX, "");
+        try {
+            Files.deleteIfExists(uploadDir.resolve(filename));
+            if (filename.endsWith(".jpg")) {
+                String hash = filename.substring(0, filename.length() - ".jpg".length());
+                Files.deleteIfExists(variantPath(hash, Variant.MEDIUM));
+                Files.deleteIfExists(variantPath(hash, Variant.THUMBNAIL));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete image file", e);
+        }
+    }
+
+    /**
+     * Resolves a file name under the uploads directory.
+     * @param filename The requested file name
+     * @return The file's path, or null if it does not exist or escapes the directory
+     */
+    public Path resolveUpload(String filename) {
+        Path root = uploadDir.toAbsolutePath().normalize();
+        Path file = root.resolve(filename).normalize();
+        if (!file.getParent().equals(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    @Override
+    public void destroy() {
+        resizeExecutor.shutdown();
+    }
+
+    private String copyAndHash(InputStream in, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long total = 0;
+        ReadableByteChannel source = Channels.newChannel(in);
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                total += buffer.remaining();
+                if (total > maxUploadBytes) {
+                    throw new InvalidImageException("Image exceeds the upload size limit");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private void runBounded(String hash, Path upload) throws IOException {
+        Future<?> future;
+        try {
+            future = resizeExecutor.submit(() -> {
+                int orientation = JpegOrientation.read(upload);
+                writeVariants(hash, decode(upload), orientation);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ImageProcessingBusyException("Image processing is busy, please retry", e);
+        }
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ImageProcessingBusyException("Interrupted while processing image", e);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ImageProcessingBusyException("Image processing timed out", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Image processing failed", e.getCause());
+        }
+    }
+
+    private BufferedImage decode(Path upload) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(upload.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new InvalidImageException("Unsupported image type");
+            }
+            ImageReader reader = readers.next();
+            try {
+                if (!ACCEPTED_FORMATS.contains(reader.getFormatName().toLowerCase(Locale.ROOT))) {
+                    throw new InvalidImageException("Unsupported image type");
+                }
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new InvalidImageException("Image dimensions are too large");
+                }
+                // Skip source pixels while decoding; the longest edge still covers the largest variant
+                int step = Math.max(1, Math.max(width, height) / Variant.FULL.maxEdge);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeVariants(String hash, BufferedImage source, int orientation) throws IOException {
+        for (Variant variant : Variant.values()) {
+            Path target = variantPath(hash, variant);
+            Path temp = Files.createTempFile(uploadDir, hash, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    writeJpeg(resize(source, orientation, variant.maxEdge), out);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Scales an image down to fit {@code maxEdge} and turns it upright in one
+     * draw, so no full-size rotated copy is allocated.
+     */
+    private BufferedImage resize(BufferedImage source, int orientation, int maxEdge) {
+        boolean swapped = JpegOrientation.swapsDimensions(orientation);
+        int uprightWidth = swapped ? source.getHeight() : source.getWidth();
+        int uprightHeight = swapped ? source.getWidth() : source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(uprightWidth, uprightHeight));
+        int width = Math.max(1, (int) Math.round(uprightWidth * scale));
+        int height = Math.max(1, (int) Math.round(uprightHeight * scale));
+        AffineTransform transform = AffineTransform.getScaleInstance(
+            (double) width / uprightWidth, (double) height / uprightHeight);
+        transform.concatenate(JpegOrientation.transform(orientation, source.getWidth(), source.getHeight()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private ImageVariants variantsOf(String hash) {
+        return new ImageVariants(URL_PREFIX + variantName(hash, Variant.FULL),
+            URL_PREFIX + variantName(hash, Variant.MEDIUM), URL_PREFIX + variantName(hash, Variant.THUMBNAIL));
+    }
+
+    private Path variantPath(String hash, Variant variant) {
+        return uploadDir.resolve(variantName(hash, variant));
+    }
+
+    private static String variantName(String hash, Variant variant) {
+        return hash + variant.suffix + ".jpg";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
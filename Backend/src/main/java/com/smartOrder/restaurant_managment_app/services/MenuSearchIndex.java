@@ -0,0 +1,181 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import com.smartOrder.restaurant_managment_app.services.MenuSnapshotService.PublicMenuItem;
+
+/**
+ * Immutable inverted index over one restaurant's menu snapshot.
+ * Terms from item names, categories and descriptions are lower-cased and
+ * stripped of accents, then kept in a sorted array so every term starting
+ * with a query prefix is found with two binary searches. Each term maps to the
+ * items containing it together with a field-weighted score. All query tokens
+ * must match; results are ranked by score and then menu order, with category
+ * facet counts over the matches.
+ */
+public final class MenuSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int NAME_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_TERM_BONUS = 1;
+
+    /**
+     * Number of matching items in one category.
+     */
+    public record CategoryFacet(String category, int count) {}
+
+    /**
+     * Ranked matches of a query with category facets over all matches.
+     */
+    public record SearchResult(String query, int total, List<PublicMenuItem> items, List<CategoryFacet> facets) {}
+
+    private final List<PublicMenuItem> items;
+    private final String[] terms;
+    private final int[][] postings;
+    private final int[][] scores;
+
+    private MenuSearchIndex(List<PublicMenuItem> items, String[] terms, int[][] postings, int[][] scores) {
+        this.items = items;
+        this.terms = terms;
+        this.postings = postings;
+        this.scores = scores;
+    }
+
+    /**
+     * Builds the index for a snapshot's items.
+     * @param items The items in menu order
+     * @return The index
+     */
+    public static MenuSearchIndex build(List<PublicMenuItem> items) {
+        TreeMap<String, Map<Integer, Integer>> index = new TreeMap<>();
+        for (int doc = 0; doc < items.size(); doc++) {
+            PublicMenuItem item = items.get(doc);
+            addField(index, doc, item.name(), NAME_WEIGHT);
+            addField(index, doc, item.category(), CATEGORY_WEIGHT);
+            addField(index, doc, item.description(), DESCRIPTION_WEIGHT);
+        }
+        String[] terms = new String[index.size()];
+        int[][] postings = new int[index.size()][];
+        int[][] scores = new int[index.size()][];
+        int t = 0;
+        for (Map.Entry<String, Map<Integer, Integer>> entry : index.entrySet()) {
+            int[] docs = entry.getValue().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            int[] docScores = new int[docs.length];
+            for (int i = 0; i < docs.length; i++) {
+                docScores[i] = entry.getValue().get(docs[i]);
+            }
+            terms[t] = entry.getKey();
+            postings[t] = docs;
+            scores[t] = docScores;
+            t++;
+        }
+        return new MenuSearchIndex(items, terms, postings, scores);
+    }
+
+    /**
+     * Searches the index. Every query token must prefix-match a term of the item.
+     * @param query The user's query; blank matches every item
+     * @param category Optional category filter applied after faceting
+     * @param limit Maximum number of items returned
+     * @return The ranked matches and category facets
+     */
+    public SearchResult search(String query, String category, int limit) {
+        List<String> tokens = tokenize(query);
+        int[] totals = new int[items.size()];
+        if (tokens.isEmpty()) {
+            Arrays.fill(totals, 1);
+        } else {
+            boolean first = true;
+            for (String token : tokens) {
+                int[] tokenScores = matchPrefix(token);
+                for (int doc = 0; doc < totals.length; doc++) {
+                    totals[doc] = tokenScores[doc] == 0 || (!first && totals[doc] == 0)
+                        ? 0 : totals[doc] + tokenScores[doc];
+                }
+                first = false;
+            }
+        }
+
+        Map<String, Integer> facetCounts = new LinkedHashMap<>();
+        List<Integer> matches = new ArrayList<>();
+        for (int doc = 0; doc < totals.length; doc++) {
+            if (totals[doc] == 0) {
+                continue;
+            }
+            String itemCategory = items.get(doc).category() != null ? items.get(doc).category() : "";
+            facetCounts.merge(itemCategory, 1, Integer::sum);
+            if (category == null || category.isBlank() || category.equalsIgnoreCase(itemCategory)) {
+                matches.add(doc);
+            }
+        }
+        matches.sort((a, b) -> totals[a] != totals[b] ? Integer.compare(totals[b], totals[a]) : Integer.compare(a, b));
+
+        List<PublicMenuItem> ranked = matches.stream().limit(Math.max(0, limit)).map(items::get).toList();
+        List<CategoryFacet> facets = facetCounts.entrySet().stream()
+            .map(entry -> new CategoryFacet(entry.getKey(), entry.getValue()))
+            .toList();
+        return new SearchResult(query, matches.size(), ranked, facets);
+    }
+
+    /**
+     * Scores every item for one query token: the best score among the terms the
+     * token is a prefix of, with a bonus for an exact term match.
+     */
+    private int[] matchPrefix(String token) {
+        int[] tokenScores = new int[items.size()];
+        int from = lowerBound(token);
+        for (int t = from; t < terms.length && terms[t].startsWith(token); t++) {
+            int bonus = terms[t].length() == token.length() ? EXACT_TERM_BONUS : 0;
+            int[] docs = postings[t];
+            for (int i = 0; i < docs.length; i++) {
+                tokenScores[docs[i]] = Math.max(tokenScores[docs[i]], scores[t][i] + bonus);
+            }
+        }
+        return tokenScores;
+    }
+
+    private int lowerBound(String token) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(token) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void addField(TreeMap<String, Map<Integer, Integer>> index, int doc, String text, int weight) {
+        for (String term : tokenize(text)) {
+            index.computeIfAbsent(term, k -> new HashMap<>()).merge(doc, weight, Math::max);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,335 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartOrder.restaurant_managment_app.Models.MenuItems;
+import com.smartOrder.restaurant_managment_app.Models.Restaurant;
+import com.smartOrder.restaurant_managment_app.repository.MenuItemRepository;
+import com.smartOrder.restaurant_managment_app.repository.RestaurantRepository;
+
+/**
+ * Keeps an immutable snapshot of each restaurant's public menu in memory.
+ * Snapshots are built once, served to every customer scan without touching
+ * MySQL, and rebuilt when an admin changes the restaurant's menu. Each snapshot
+ * carries a strong ETag derived from its serialized content, and a compact
+ * category-grouped form for the restaurant-scoped public endpoint. Both forms
+ * are serialized and gzip-compressed once per rebuild, so serving a menu is a
+ * plain byte copy. Reads never lock; a restaurant's snapshot is loaded and
+ * replaced under that restaurant's own lock, outside any map bin lock.
+ * Snapshot versions are the restaurants' persisted menu versions, increased
+ * after every menu write, so they survive restarts and every instance tags
+ * the same menu with the same ETag. Each instance polls the versions and
+ * rebuilds snapshots that another instance's writes made stale. The combined
+ * snapshot is versioned by the sum of all menu versions, stamped with the
+ * local generation it was loaded in, and only served while no menu has
+ * changed since.
+ */
+@Service
+public class MenuSnapshotService {
+
+    /** Same order as the snapshot query: category, then id */
+    private static final Comparator<PublicMenuItem> MENU_ORDER = Comparator
+        .comparing(PublicMenuItem::category, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+        .thenComparing(PublicMenuItem::id);
+
+    private final MenuItemRepository menuItemRepo;
+    private final RestaurantRepository restaurantRepo;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Long> restaurantIdsByCode = new ConcurrentHashMap<>();
+    private final Map<Long, Object> restaurantLocks = new ConcurrentHashMap<>();
+    private final AtomicLong allRestaurantsGeneration = new AtomicLong();
+    private final AtomicReference<StampedSnapshot> allRestaurantsSnapshot = new AtomicReference<>();
+
+    public MenuSnapshotService(MenuItemRepository menuItemRepo, RestaurantRepository restaurantRepo,
+                               ObjectMapper objectMapper) {
+        this.menuItemRepo = menuItemRepo;
+        this.restaurantRepo = restaurantRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Public view of a menu item.
+     */
+    public record PublicMenuItem(Long id, String name, String description, double price,
+                                 String category, String imageUrl, String mediumImageUrl,
+                                 String thumbnailUrl, boolean available) {
+
+        static PublicMenuItem from(MenuItems item) {
+            return new PublicMenuItem(item.getId(), item.getName(), item.getDescription(), item.getPrice(),
+                item.getCategory(), item.getImageUrl(), item.getMediumImageUrl(), item.getThumbnailUrl(),
+                item.isAvailable());
+        }
+    }
+
+    /**
+     * Compact item entry of a category-grouped menu.
+     */
+    public record CompactMenuItem(Long id, String name, String description, double price, String imageUrl,
+                                  String mediumImageUrl, String thumbnailUrl) {}
+
+    /**
+     * One category of a grouped menu, in menu order.
+     */
+    public record MenuCategory(String name, List<CompactMenuItem> items) {}
+
+    /**
+     * A response body serialized once, kept as plain and gzip-compressed JSON.
+     */
+    public record SerializedPayload(byte[] json, byte[] gzip) {}
+
+    /**
+     * Immutable available-items menu, flat and grouped by category, with its strong ETag
+     * and both forms pre-serialized for direct serving, plus a search index over
+     * its items. The version is the restaurant's persisted menu version the snapshot
+     * was loaded at, and is part of the ETag.
+     */
+    public record MenuSnapshot(List<PublicMenuItem> items, List<MenuCategory> categories, String etag,
+                               SerializedPayload itemsPayload, SerializedPayload categoriesPayload,
+                               MenuSearchIndex searchIndex, long version) {}
+
+    /**
+     * Returns the snapshot for the restaurant with the given public code.
+     * Codes never change, so the code-to-id lookup is only queried once per restaurant.
+     * @param restaurantCode The restaurant's public code
+     * @return The restaurant's menu snapshot, or empty if the code is unknown
+     */
+    public Optional<MenuSnapshot> getSnapshotByCode(String restaurantCode) {
+        Long restaurantId = restaurantIdsByCode.get(restaurantCode);
+        if (restaurantId == null) {
+            Optional<Restaurant> restaurant = restaurantRepo.findByCode(restaurantCode);
+            if (restaurant.isEmpty()) {
+                return Optional.empty();
+            }
+            restaurantId = restaurant.get().getId();
+            restaurantIdsByCode.put(restaurantCode, restaurantId);
+        }
+        return Optional.of(getSnapshot(restaurantId));
+    }
+
+    /**
+     * The combined snapshot with the menu generation it was loaded in.
+     */
+    private record StampedSnapshot(long generation, MenuSnapshot snapshot) {}
+
+    /**
+     * Returns the snapshot for one restaurant, building it on first use.
+     * @param restaurantId The restaurant to look up
+     * @return The restaurant's current menu snapshot
+     */
+    public MenuSnapshot getSnapshot(Long restaurantId) {
+        MenuSnapshot snapshot = snapshots.get(restaurantId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (lockFor(restaurantId)) {
+            snapshot = snapshots.get(restaurantId);
+            if (snapshot == null) {
+                snapshot = loadSnapshot(restaurantId, menuVersion(restaurantId));
+                snapshots.put(restaurantId, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the snapshot of every restaurant's available items.
+     * A snapshot loaded while a menu changed is returned to its caller but not kept.
+     * @return The combined menu snapshot
+     */
+    public MenuSnapshot getAllRestaurantsSnapshot() {
+        long generation = allRestaurantsGeneration.get();
+        StampedSnapshot current = allRestaurantsSnapshot.get();
+        if (current != null && current.generation() == generation) {
+            return current.snapshot();
+        }
+        long version = sumOfMenuVersions();
+        List<PublicMenuItem> items = menuItemRepo.findByAvailableTrue().stream().map(PublicMenuItem::from).toList();
+        MenuSnapshot snapshot = build(items, version);
+        if (allRestaurantsGeneration.get() == generation) {
+            allRestaurantsSnapshot.compareAndSet(current, new StampedSnapshot(generation, snapshot));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Increases a restaurant's menu version and rebuilds its snapshot after its
+     * menu was written and committed.
+     * @param restaurantId The restaurant whose menu was written
+     */
+    public void rebuild(Long restaurantId) {
+        allRestaurantsGeneration.incrementAndGet();
+        if (restaurantId == null) {
+            return;
+        }
+        restaurantRepo.incrementMenuVersion(restaurantId);
+        synchronized (lockFor(restaurantId)) {
+            snapshots.put(restaurantId, loadSnapshot(restaurantId, menuVersion(restaurantId)));
+        }
+    }
+
+    /**
+     * Rebuilds snapshots whose menu version another instance has increased, and
+     * drops the combined snapshot when any version changed.
+     */
+    @Scheduled(fixedDelayString = "${menu.snapshot.sync-ms:5000}")
+    public void syncVersions() {
+        long sum = 0;
+        for (Object[] row : restaurantRepo.findMenuVersions()) {
+            Long restaurantId = ((Number) row[0]).longValue();
+            long version = ((Number) row[1]).longValue();
+            sum += version;
+            MenuSnapshot cached = snapshots.get(restaurantId);
+            if (cached == null || cached.version() >= version) {
+                continue;
+            }
+            synchronized (lockFor(restaurantId)) {
+                cached = snapshots.get(restaurantId);
+                if (cached != null && cached.version() < version) {
+                    snapshots.put(restaurantId, loadSnapshot(restaurantId, menuVersion(restaurantId)));
+                }
+            }
+        }
+        StampedSnapshot combined = allRestaurantsSnapshot.get();
+        if (combined != null && combined.snapshot().version() != sum) {
+            allRestaurantsGeneration.incrementAndGet();
+        }
+    }
+
+    /**
+     * Patches one item's availability into a restaurant's snapshot without querying
+     * the database: the item is removed, or inserted in category order.
+     * @param restaurantId The restaurant owning the item
+     * @param item The item after its availability changed
+     * @return The snapshot version after the patch
+     */
+    public long applyAvailability(Long restaurantId, MenuItems item) {
+        allRestaurantsGeneration.incrementAndGet();
+        if (restaurantId == null) {
+            return 0;
+        }
+        restaurantRepo.incrementMenuVersion(restaurantId);
+        synchronized (lockFor(restaurantId)) {
+            long version = menuVersion(restaurantId);
+            MenuSnapshot previous = snapshots.get(restaurantId);
+            // Patch only a snapshot that has every earlier write; otherwise reload
+            MenuSnapshot patched = previous == null || previous.version() != version - 1
+                ? loadSnapshot(restaurantId, version)
+                : build(withAvailability(previous.items(), item), version);
+            snapshots.put(restaurantId, patched);
+            return patched.version();
+        }
+    }
+
+    private static List<PublicMenuItem> withAvailability(List<PublicMenuItem> previousItems, MenuItems item) {
+        List<PublicMenuItem> items = new ArrayList<>(previousItems.size() + 1);
+        for (PublicMenuItem existing : previousItems) {
+            if (!existing.id().equals(item.getId())) {
+                items.add(existing);
+            }
+        }
+        if (item.isAvailable()) {
+            PublicMenuItem changed = PublicMenuItem.from(item);
+            int index = 0;
+            while (index < items.size() && MENU_ORDER.compare(items.get(index), changed) < 0) {
+                index++;
+            }
+            items.add(index, changed);
+        }
+        return List.copyOf(items);
+    }
+
+    private Object lockFor(Long restaurantId) {
+        return restaurantLocks.computeIfAbsent(restaurantId, id -> new Object());
+    }
+
+    private long menuVersion(Long restaurantId) {
+        Long version = restaurantRepo.findMenuVersion(restaurantId);
+        return version == null ? 0 : version;
+    }
+
+    private long sumOfMenuVersions() {
+        long sum = 0;
+        for (Object[] row : restaurantRepo.findMenuVersions()) {
+            sum += ((Number) row[1]).longValue();
+        }
+        return sum;
+    }
+
+    /**
+     * Loads a restaurant's menu into a snapshot of the given version. The version is
+     * read before the items, so a concurrent write can only make the snapshot newer
+     * than its version, and the next sync rebuilds it.
+     */
+    private MenuSnapshot loadSnapshot(Long restaurantId, long version) {
+        return build(load(restaurantId), version);
+    }
+
+    private List<PublicMenuItem> load(Long restaurantId) {
+        return menuItemRepo.findByAdminRestaurantIdAndAvailableTrueOrderByCategoryAscIdAsc(restaurantId).stream()
+            .map(PublicMenuItem::from)
+            .toList();
+    }
+
+    private MenuSnapshot build(List<PublicMenuItem> publicItems, long version) {
+        List<MenuCategory> categories = groupByCategory(publicItems);
+        SerializedPayload itemsPayload = serialize(publicItems);
+        return new MenuSnapshot(publicItems, categories, etagOf(itemsPayload.json(), version),
+            itemsPayload, serialize(categories), MenuSearchIndex.build(publicItems), version);
+    }
+
+    private SerializedPayload serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new SerializedPayload(json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu snapshot", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<MenuCategory> groupByCategory(List<PublicMenuItem> items) {
+        Map<String, List<CompactMenuItem>> byCategory = new LinkedHashMap<>();
+        for (PublicMenuItem item : items) {
+            String category = item.category() != null ? item.category() : "";
+            byCategory.computeIfAbsent(category, c -> new ArrayList<>())
+                .add(new CompactMenuItem(item.id(), item.name(), item.description(), item.price(),
+                    item.imageUrl(), item.mediumImageUrl(), item.thumbnailUrl()));
+        }
+        return byCategory.entrySet().stream()
+            .map(e -> new MenuCategory(e.getKey(), List.copyOf(e.getValue())))
+            .toList();
+    }
+
+    private String etagOf(byte[] json, long version) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + version + "-" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint menu snapshot", e);
+        }
+    }
+}
@@ -3,20 +3,31 @@ package com.smartOrder.restaurant_managment_app.services;
 import com.smartOrder.restaurant_managment_app.Models.UserPrinciple;
 import com.smartOrder.restaurant_managment_app.Models.Users;
 import com.smartOrder.restaurant_managment_app.repository.UserRepo;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 /**
  * Custom user details service for Spring Security authentication.
+ * Keeps a short-lived cache of principals for authenticating bearer tokens;
+ * password logins always read the user from the database.
+ * Also stores rehashed passwords when the encoder asks for an upgrade on login.
  */
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
-    @Autowired
-    private UserRepo userRepo;
+    private final UserRepo userRepo;
+    private final BoundedTtlCache<String, UserDetails> principalCache;
+
+    public MyUserDetailsService(UserRepo userRepo,
+                                @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                                @Value("${security.principal-cache.ttl-ms:60000}") long ttlMillis) {
+        this.userRepo = userRepo;
+        this.principalCache = new BoundedTtlCache<>(maxSize, ttlMillis);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -24,4 +35,33 @@ public class MyUserDetailsService implements UserDetailsService {
         if (user == null) throw new UsernameNotFoundException("User not found");
         return new UserPrinciple(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves a password rehashed with the current encoding after a successful login.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        Users user = userRepo.findByUsername(userDetails.getUsername());
+        if (user == null) throw new UsernameNotFoundException("User not found");
+        user.setPassword(newEncodedPassword);
+        evictCachedUser(user.getUsername());
+        return new UserPrinciple(userRepo.save(user));
+    }
+
+    /**
+     * Loads a user for token authentication, served from the principal cache when possible.
+     * @param username The username from the verified token
+     * @return The cached or freshly loaded principal
+     */
+    public UserDetails loadCachedUserByUsername(String username) throws UsernameNotFoundException {
+        return principalCache.get(username, this::loadUserByUsername);
+    }
+
+    /**
+     * Drops a cached principal after the user's role, status or credentials change.
+     * @param username The username to evict
+     */
+    public void evictCachedUser(String username) {
+        principalCache.invalidate(username);
+    }
+}
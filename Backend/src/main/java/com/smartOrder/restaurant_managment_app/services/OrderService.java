@@ -2,40 +2,67 @@ package com.smartOrder.restaurant_managment_app.services;
 
 import java.time.LocalDate;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.smartOrder.restaurant_managment_app.Models.Order;
 import com.smartOrder.restaurant_managment_app.Models.Stats;
 import com.smartOrder.restaurant_managment_app.repository.OrderRepository;
+import com.smartOrder.restaurant_managment_app.services.DayStatsAccumulator.OrderContribution;
+import com.smartOrder.restaurant_managment_app.services.ItemDailySalesService.OrderLineTotals;
 
 /**
  * Service for order management with automatic stats updates.
+ * Order line changes are applied to item_daily_sales in the same transaction.
  */
 @Service
 public class OrderService {
     
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+    
     @Autowired
     private OrderRepository orderRepository;
     
     @Autowired
-    private StatsCalculationService statsCalculationService;
+    private DailyStatsService dailyStatsService;
+    
+    @Autowired
+    private ItemDailySalesService itemDailySalesService;
     
     @Autowired(required = false)
     private SimpMessagingTemplate messagingTemplate;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
     @Transactional
     public Order saveOrder(Order order) {
-        Order savedOrder = orderRepository.save(order);
-        updateStatsForDate(savedOrder.getTime().toLocalDate());
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        updateItemSales(savedOrder, null, List.of());
+        updateStatsForOrder(savedOrder);
         return savedOrder;
     }
     
     @Transactional
     public Order updateOrder(Order order) {
-        Order updatedOrder = orderRepository.save(order);
-        updateStatsForDate(updatedOrder.getTime().toLocalDate());
+        LocalDate previousDate = itemDailySalesService.orderDate(order.getId());
+        List<OrderLineTotals> previousLines = itemDailySalesService.orderLines(order.getId());
+        Order updatedOrder = orderRepository.saveAndFlush(order);
+        updateItemSales(updatedOrder, previousDate, previousLines);
+        LocalDate date = updatedOrder.getTime().toLocalDate();
+        if (previousDate != null && !previousDate.equals(date)) {
+            // The order moved to another day; take it out of the day it was counted in
+            updateStatsForDate(updatedOrder.getId(), previousDate, null);
+        }
+        updateStatsForOrder(updatedOrder);
         return updatedOrder;
     }
     
@@ -48,7 +75,7 @@ public class OrderService {
                 order.setReadyTime(java.time.LocalDateTime.now());
             }
             Order updatedOrder = orderRepository.save(order);
-            updateStatsForDate(updatedOrder.getTime().toLocalDate());
+            updateStatsForOrder(updatedOrder);
             return updatedOrder;
         }
         return null;
@@ -59,19 +86,62 @@ public class OrderService {
         Order order = orderRepository.findById(orderId).orElse(null);
         if (order != null) {
             LocalDate orderDate = order.getTime().toLocalDate();
+            List<OrderLineTotals> previousLines = itemDailySalesService.orderLines(orderId);
             orderRepository.deleteById(orderId);
-            updateStatsForDate(orderDate);
+            itemDailySalesService.apply(orderDate, previousLines, -1);
+            updateStatsForDate(orderId, orderDate, null);
         }
     }
     
-    private void updateStatsForDate(LocalDate date) {
-        try {
-            Stats updatedStats = statsCalculationService.calculateStatsFromData(date);
-            if (messagingTemplate != null) {
-                messagingTemplate.convertAndSend("/topic/stats-updates", updatedStats);
+    /**
+     * Subtracts the order's previous lines from the day they were stored under and
+     * adds its flushed lines to the order's current day.
+     */
+    private void updateItemSales(Order order, LocalDate previousDate, List<OrderLineTotals> previousLines) {
+        if (previousDate != null) {
+            itemDailySalesService.apply(previousDate, previousLines, -1);
+        }
+        itemDailySalesService.apply(order.getTime().toLocalDate(), itemDailySalesService.orderLines(order.getId()), 1);
+    }
+    
+    private void updateStatsForOrder(Order order) {
+        updateStatsForDate(order.getId(), order.getTime().toLocalDate(), OrderContribution.of(order));
+    }
+    
+    /**
+     * Once the transaction commits, applies the order's change to today's live
+     * stats, or re-saves the summary of the past day it belongs to, and
+     * broadcasts the day's stats. The order's transaction has already finished
+     * by then, so the summary is saved in a transaction of its own. A failure
+     * is logged and does not affect the committed order.
+     */
+    private void updateStatsForDate(Long orderId, LocalDate date, OrderContribution contribution) {
+        Runnable update = () -> {
+            try {
+                TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+                requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                Stats updatedStats = requiresNew.execute(status -> {
+                    dailyStatsService.recordOrder(orderId, date, contribution);
+                    return date.isBefore(LocalDate.now())
+                        ? dailyStatsService.refresh(date)
+                        : dailyStatsService.statsFor(date);
+                });
+                if (messagingTemplate != null) {
+                    messagingTemplate.convertAndSend("/topic/stats-updates", updatedStats);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to update stats for {} after order {}", date, orderId, e);
             }
-        } catch (Exception e) {
-            // Log error would go here
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
         }
     }
     
@@ -84,7 +154,7 @@ public class OrderService {
     }
     
     public Stats recalculateStatsForDate(LocalDate date) {
-        return statsCalculationService.calculateStatsFromData(date);
+        return dailyStatsService.refresh(date);
     }
     
     public Stats recalculateStatsForToday() {
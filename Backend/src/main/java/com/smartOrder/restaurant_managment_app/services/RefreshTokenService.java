@@ -2,9 +2,10 @@ package com.smartOrder.restaurant_managment_app.services;
 
 import com.smartOrder.restaurant_managment_app.Models.RefreshToken;
 import com.smartOrder.restaurant_managment_app.Models.Users;
+import com.smartOrder.restaurant_managment_app.Security.TokenHashes;
 import com.smartOrder.restaurant_managment_app.repository.RefreshTokenRepository;
-import com.smartOrder.restaurant_managment_app.repository.UserRepo;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,69 +15,100 @@ import java.util.UUID;
 
 /**
  * Service for managing refresh tokens.
+ * Tokens are stored hashed, one row per user. Issuing a token is a single
+ * upsert; a refresh takes two round trips, looking the owner up by hash and
+ * then upserting the rotated token. Hashes known to be invalid are remembered
+ * briefly so replayed or revoked tokens do not reach the database again.
  */
 @Service
 public class RefreshTokenService {
-    
+
     @Value("${jwt.refresh.expiration:604800000}")
     private Long refreshTokenDurationMs;
 
+    @Value("${jwt.refresh.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepo userRepository;
+    private final BoundedTtlCache<String, Boolean> revokedHashes;
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepo userRepository) {
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh.negative-cache.max-size:10000}") int negativeCacheSize,
+                               @Value("${jwt.refresh.negative-cache.ttl-ms:600000}") long negativeCacheTtlMs) {
         this.refreshTokenRepository = refreshTokenRepository;
-        this.userRepository = userRepository;
+        this.revokedHashes = new BoundedTtlCache<>(negativeCacheSize, negativeCacheTtlMs);
     }
 
+    /**
+     * Issues a new refresh token for the user, replacing any previous one.
+     * @param userId The user the token belongs to
+     * @return The raw token to hand to the client; only its hash is stored
+     */
     @Transactional
-    public RefreshToken createRefreshToken(Integer userId) {
-        Optional<RefreshToken> existingToken = refreshTokenRepository.findByUserId(userId);
-        
-        RefreshToken refreshToken;
-        if (existingToken.isPresent()) {
-            refreshToken = existingToken.get();
-            refreshToken.setToken(UUID.randomUUID().toString());
-            refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-            refreshToken.setCreatedDate(Instant.now());
-        } else {
-            refreshToken = new RefreshToken();
-            refreshToken.setUserId(userId);
-            refreshToken.setToken(UUID.randomUUID().toString());
-            refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-            refreshToken.setCreatedDate(Instant.now());
-        }
-        
-        return refreshTokenRepository.save(refreshToken);
+    public String createRefreshToken(Integer userId) {
+        String token = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        refreshTokenRepository.upsertForUser(userId, TokenHashes.sha256(token),
+            now.plusMillis(refreshTokenDurationMs), now);
+        return token;
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    /**
+     * Resolves the owner of a refresh token with a single query.
+     * @param token The presented refresh token
+     * @return The owner of the token, or null if it is unknown, revoked or expired
+     */
+    public Users getUserFromRefreshToken(String token) {
+        String tokenHash = TokenHashes.sha256(token);
+        if (revokedHashes.get(tokenHash) != null) {
+            return null;
+        }
+        Optional<Users> user = refreshTokenRepository.findUserByValidTokenHash(tokenHash, Instant.now());
+        if (user.isEmpty()) {
+            revokedHashes.put(tokenHash, Boolean.TRUE);
+            return null;
+        }
+        return user.get();
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.isExpired()) {
-            refreshTokenRepository.delete(token);
-            throw new RuntimeException("Refresh token was expired. Please make a new signin request");
-        }
-        return token;
+    /**
+     * Marks a presented refresh token as no longer usable after it has been rotated.
+     * @param token The raw token that was just replaced
+     */
+    public void markRotated(String token) {
+        revokedHashes.put(TokenHashes.sha256(token), Boolean.TRUE);
     }
 
+    /**
+     * Revokes a single refresh token, for example on logout from one device.
+     * @param token The raw token to revoke
+     */
     @Transactional
-    public void deleteByUserId(Integer userId) {
-        refreshTokenRepository.deleteByUserId(userId);
+    public void revoke(String token) {
+        String tokenHash = TokenHashes.sha256(token);
+        refreshTokenRepository.deleteByTokenHash(tokenHash);
+        revokedHashes.put(tokenHash, Boolean.TRUE);
     }
 
-    public Users getUserFromRefreshToken(String token) {
-        return findByToken(token)
-                .map(this::verifyExpiration)
-                .map(RefreshToken::getUserId)
-                .map(userId -> userRepository.findById(userId).orElse(null))
-                .orElse(null);
+    public Optional<RefreshToken> findByToken(String token) {
+        return refreshTokenRepository.findByTokenHash(TokenHashes.sha256(token));
     }
 
     @Transactional
+    public void deleteByUserId(Integer userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Purges expired tokens in batches so the table does not grow unbounded.
+     * Runs every hour.
+     */
+    @Scheduled(fixedRate = 3600000)
     public void deleteExpiredTokens() {
-        refreshTokenRepository.deleteAllExpiredTokens(Instant.now());
+        Instant now = Instant.now();
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(now, purgeBatchSize);
+        } while (deleted == purgeBatchSize);
     }
-}
\ No newline at end of file
+}
@@ -2,13 +2,10 @@ package com.smartOrder.restaurant_managment_app.services;
 
 import java.time.LocalDate;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import com.smartOrder.restaurant_managment_app.Models.Order;
-import com.smartOrder.restaurant_managment_app.Models.OrderedItems;
-import com.smartOrder.restaurant_managment_app.repository.OrderRepository;
+import com.smartOrder.restaurant_managment_app.repository.ItemDailySalesRepository;
 
 /**
  * Service for calculating sales revenue by menu item categories.
@@ -17,30 +14,20 @@ import com.smartOrder.restaurant_managment_app.repository.OrderRepository;
 public class SaleByCategoryService {
   
     @Autowired
-    private OrderRepository orderRepo;
+    private ItemDailySalesRepository itemDailySalesRepo;
     
     /**
-     * Calculates total sales revenue grouped by menu item categories for a given date.
+     * Calculates a restaurant's sales revenue grouped by menu item categories for a given date.
      * 
+     * @param restaurantId The restaurant whose sales are summed
      * @param date The date for which to calculate sales
      * @return Map where keys are category names and values are total revenue
      */
-    public Map<String, Double> calculateSalesByCategory(LocalDate date) {
-        List<Order> orders = orderRepo.findByTimeBetween(
-            date.atStartOfDay(), 
-            date.plusDays(1).atStartOfDay()
-        );
-
-        Map<String, Double> categorySales = new HashMap<>();
-
-        for (Order order : orders) {
-            for (OrderedItems item : order.getItems()) {
-                String category = item.getMenuItem().getCategory();
-                double itemRevenue = item.getQuantity() * item.getMenuItem().getPrice();
-                categorySales.merge(category, itemRevenue, Double::sum);
-            }
+    public Map<String, Double> calculateSalesByCategory(Long restaurantId, LocalDate date) {
+        Map<String, Double> sales = new HashMap<>();
+        for (Object[] row : itemDailySalesRepo.sumRevenueByCategory(restaurantId, date)) {
+            sales.put((String) row[0], ((Number) row[1]).longValue() / 100.0);
         }
-
-        return categorySales;
+        return sales;
     }
-}
\ No newline at end of file
+}
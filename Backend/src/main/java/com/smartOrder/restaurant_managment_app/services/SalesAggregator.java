@@ -0,0 +1,279 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregation kernel for sales analytics.
+ * Order lines are accumulated per menu item id into primitive arrays of
+ * quantities and revenue in cents, so adding a line costs one hash probe and
+ * two array updates with no boxing. Top-K selection uses a bounded heap of
+ * size K instead of sorting every item. Not thread-safe; use one instance per
+ * computation.
+ */
+public final class SalesAggregator {
+
+    /**
+     * Totals of one menu item.
+     */
+    public record ItemSales(long menuItemId, String name, String category, long quantity, long revenueCents) {}
+
+    /**
+     * Entry of a top-sellers list; revenue and price are in currency units.
+     */
+    public record TopSellingItem(String name, long orders, double pricePerItem, double revenue) {}
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private long[] menuItemIds = new long[INITIAL_CAPACITY];
+    private long[] quantities = new long[INITIAL_CAPACITY];
+    private long[] revenueCents = new long[INITIAL_CAPACITY];
+    private long[] unitCents = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] categories = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Converts a price to whole cents.
+     * @param price A price in currency units
+     * @return The price in cents, rounded half up
+     */
+    public static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    /**
+     * Adds one order line.
+     * @param menuItemId The ordered item
+     * @param name The item's name, kept from the first line seen
+     * @param category The item's category, kept from the first line seen
+     * @param priceCents The unit price in cents
+     * @param quantity The ordered quantity
+     */
+    public void addLine(long menuItemId, String name, String category, long priceCents, long quantity) {
+        int slot = slotFor(menuItemId, name, category);
+        if (quantities[slot] == 0 && revenueCents[slot] == 0) {
+            unitCents[slot] = priceCents;
+        }
+        quantities[slot] += quantity;
+        revenueCents[slot] += priceCents * quantity;
+    }
+
+    /**
+     * Adds pre-aggregated totals, e.g. from a daily rollup.
+     * @param menuItemId The item
+     * @param name The item's name, kept from the first totals seen
+     * @param category The item's category, kept from the first totals seen
+     * @param quantity The quantity sold
+     * @param revenue The revenue in cents
+     */
+    public void addTotals(long menuItemId, String name, String category, long quantity, long revenue) {
+        int slot = slotFor(menuItemId, name, category);
+        if (quantities[slot] == 0 && revenueCents[slot] == 0 && quantity > 0) {
+            unitCents[slot] = revenue / quantity;
+        }
+        quantities[slot] += quantity;
+        revenueCents[slot] += revenue;
+    }
+
+    /**
+     * @return Number of distinct menu items seen
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the K best-selling items by quantity, ties broken by revenue and then id.
+     * @param k Number of items wanted
+     * @return Up to K items, best first
+     */
+    public List<TopSellingItem> topByQuantity(int k) {
+        int[] heap = topSlots(k);
+        List<TopSellingItem> result = new ArrayList<>(heap.length);
+        for (int slot : heap) {
+            result.add(new TopSellingItem(names[slot], quantities[slot], unitCents[slot] / 100.0,
+                revenueCents[slot] / 100.0));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the K best-selling items by quantity with their raw totals.
+     * @param k Number of items wanted
+     * @return Up to K items, best first
+     */
+    public List<ItemSales> topItemSales(int k) {
+        int[] heap = topSlots(k);
+        List<ItemSales> result = new ArrayList<>(heap.length);
+        for (int slot : heap) {
+            result.add(itemSales(slot));
+        }
+        return result;
+    }
+
+    /**
+     * Returns every item's totals in first-seen order.
+     * @return The item totals
+     */
+    public List<ItemSales> items() {
+        List<ItemSales> result = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            result.add(itemSales(slot));
+        }
+        return result;
+    }
+
+    /**
+     * Sums revenue per category.
+     * @return Revenue in currency units by category name
+     */
+    public Map<String, Double> revenueByCategory() {
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        long[] totals = new long[size];
+        List<String> order = new ArrayList<>();
+        for (int slot = 0; slot < size; slot++) {
+            Integer index = categoryIndex.get(categories[slot]);
+            if (index == null) {
+                index = order.size();
+                categoryIndex.put(categories[slot], index);
+                order.add(categories[slot]);
+            }
+            totals[index] += revenueCents[slot];
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            result.put(order.get(i), totals[i] / 100.0);
+        }
+        return result;
+    }
+
+    private ItemSales itemSales(int slot) {
+        return new ItemSales(menuItemIds[slot], names[slot], categories[slot], quantities[slot], revenueCents[slot]);
+    }
+
+    /**
+     * Selects the best K slots with a min-heap whose root is the weakest kept slot.
+     */
+    private int[] topSlots(int k) {
+        int limit = Math.min(Math.max(k, 0), size);
+        int[] heap = new int[limit];
+        int count = 0;
+        for (int slot = 0; slot < size && limit > 0; slot++) {
+            if (count < limit) {
+                heap[count] = slot;
+                siftUp(heap, count++);
+            } else if (better(slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(heap, 0, count);
+            }
+        }
+        // Heap-sort in place: repeatedly move the weakest to the end
+        for (int end = count - 1; end > 0; end--) {
+            int weakest = heap[0];
+            heap[0] = heap[end];
+            heap[end] = weakest;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    private boolean better(int a, int b) {
+        if (quantities[a] != quantities[b]) {
+            return quantities[a] > quantities[b];
+        }
+        if (revenueCents[a] != revenueCents[b]) {
+            return revenueCents[a] > revenueCents[b];
+        }
+        return menuItemIds[a] < menuItemIds[b];
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index])) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int index, int count) {
+        while (true) {
+            int weakest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < count && better(heap[weakest], heap[left])) {
+                weakest = left;
+            }
+            if (right < count && better(heap[weakest], heap[right])) {
+                weakest = right;
+            }
+            if (weakest == index) {
+                return;
+            }
+            swap(heap, index, weakest);
+            index = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    /**
+     * Finds or allocates the accumulator slot of a menu item using open addressing.
+     */
+    private int slotFor(long menuItemId, String name, String category) {
+        int mask = table.length - 1;
+        int probe = mix(menuItemId) & mask;
+        while (table[probe] != 0) {
+            int slot = table[probe] - 1;
+            if (menuItemIds[slot] == menuItemId) {
+                return slot;
+            }
+            probe = (probe + 1) & mask;
+        }
+        if (size == menuItemIds.length) {
+            grow();
+            return slotFor(menuItemId, name, category);
+        }
+        int slot = size++;
+        menuItemIds[slot] = menuItemId;
+        names[slot] = name;
+        categories[slot] = category;
+        table[probe] = slot + 1;
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = menuItemIds.length * 2;
+        menuItemIds = Arrays.copyOf(menuItemIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        revenueCents = Arrays.copyOf(revenueCents, capacity);
+        unitCents = Arrays.copyOf(unitCents, capacity);
+        names = Arrays.copyOf(names, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        table = new int[capacity * 2];
+        int mask = table.length - 1;
+        for (int slot = 0; slot < size; slot++) {
+            int probe = mix(menuItemIds[slot]) & mask;
+            while (table[probe] != 0) {
+                probe = (probe + 1) & mask;
+            }
+            table[probe] = slot + 1;
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
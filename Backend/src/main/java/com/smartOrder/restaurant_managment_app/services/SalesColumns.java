@@ -0,0 +1,155 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One restaurant's order lines stored column by column in primitive arrays:
+ * local time in epoch minutes, a dense item code, quantity and revenue in
+ * cents, about 14 bytes per line. Each item code maps to a category code, so
+ * grouping by category needs no lookups while scanning. A single writer appends
+ * lines and then publishes an immutable {@link View}; readers scan the view
+ * they obtained without locking.
+ */
+public final class SalesColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    /** 1970-01-01 was a Thursday; weekdays are counted from Monday = 0 */
+    private static final int EPOCH_WEEKDAY = 3;
+
+    /**
+     * Quantity and revenue of one group; dimensions that were not grouped by are -1.
+     */
+    public record GroupTotals(int weekday, int hour, int category, long quantity, long revenueCents) {}
+
+    /**
+     * A consistent, read-only state of the columns. Arrays may be longer than
+     * {@code size}; entries past it belong to later views.
+     */
+    public record View(int size, int[] minutes, int[] itemCodes, short[] quantities, int[] cents,
+                       int[] itemCategories, List<String> categories) {
+
+        /**
+         * Sums quantity and revenue of the lines in a time window, grouped by any
+         * combination of weekday, hour of day and category.
+         * @param fromMinute Inclusive start of the window in epoch minutes
+         * @param toMinute Exclusive end of the window in epoch minutes
+         * @param byWeekday Whether to group by weekday (Monday = 0)
+         * @param byHour Whether to group by hour of day
+         * @param byCategory Whether to group by category code
+         * @return Non-empty groups, ordered by weekday, hour and category
+         */
+        public List<GroupTotals> groupBy(int fromMinute, int toMinute, boolean byWeekday, boolean byHour,
+                                         boolean byCategory) {
+            int hours = byHour ? 24 : 1;
+            int categoryCount = byCategory ? Math.max(categories.size(), 1) : 1;
+            int cells = (byWeekday ? 7 : 1) * hours * categoryCount;
+            long[] quantitySums = new long[cells];
+            long[] centSums = new long[cells];
+            long[] lineCounts = new long[cells];
+
+            for (int i = 0; i < size; i++) {
+                int minute = minutes[i];
+                if (minute < fromMinute || minute >= toMinute) {
+                    continue;
+                }
+                int weekday = byWeekday ? (minute / MINUTES_PER_DAY + EPOCH_WEEKDAY) % 7 : 0;
+                int hour = byHour ? minute % MINUTES_PER_DAY / 60 : 0;
+                int category = byCategory ? itemCategories[itemCodes[i]] : 0;
+                int cell = (weekday * hours + hour) * categoryCount + category;
+                quantitySums[cell] += quantities[i];
+                centSums[cell] += cents[i];
+                lineCounts[cell]++;
+            }
+
+            List<GroupTotals> groups = new ArrayList<>();
+            for (int cell = 0; cell < cells; cell++) {
+                if (lineCounts[cell] == 0) {
+                    continue;
+                }
+                int category = cell % categoryCount;
+                int hour = cell / categoryCount % hours;
+                int weekday = cell / categoryCount / hours;
+                groups.add(new GroupTotals(byWeekday ? weekday : -1, byHour ? hour : -1,
+                    byCategory ? category : -1, quantitySums[cell], centSums[cell]));
+            }
+            return groups;
+        }
+    }
+
+    private final Map<Long, Integer> itemCodesById = new HashMap<>();
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private int[] minutes = new int[INITIAL_CAPACITY];
+    private int[] itemCodes = new int[INITIAL_CAPACITY];
+    private short[] quantities = new short[INITIAL_CAPACITY];
+    private int[] cents = new int[INITIAL_CAPACITY];
+    private int[] itemCategories = new int[64];
+    private List<String> categories = List.of();
+    private int size;
+    private volatile View view = new View(0, minutes, itemCodes, quantities, cents, itemCategories, categories);
+
+    /**
+     * Appends one order line. Call {@link #publish()} to make appended lines visible.
+     * Writer thread only.
+     * @param epochMinute Local order time in minutes since 1970-01-01T00:00
+     * @param menuItemId The ordered item
+     * @param category The item's category; the first one seen for an item is kept
+     * @param quantity The ordered quantity, capped at {@link Short#MAX_VALUE}
+     * @param lineCents Revenue of the line in cents
+     */
+    public void append(int epochMinute, long menuItemId, String category, int quantity, int lineCents) {
+        if (size == minutes.length) {
+            int capacity = size * 2;
+            minutes = Arrays.copyOf(minutes, capacity);
+            itemCodes = Arrays.copyOf(itemCodes, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+        }
+        minutes[size] = epochMinute;
+        itemCodes[size] = itemCode(menuItemId, category);
+        quantities[size] = (short) Math.min(quantity, Short.MAX_VALUE);
+        cents[size] = lineCents;
+        size++;
+    }
+
+    /**
+     * Makes every appended line visible to readers. Writer thread only.
+     */
+    public void publish() {
+        view = new View(size, minutes, itemCodes, quantities, cents, itemCategories, categories);
+    }
+
+    /**
+     * @return The latest published state
+     */
+    public View view() {
+        return view;
+    }
+
+    private int itemCode(long menuItemId, String category) {
+        Integer code = itemCodesById.get(menuItemId);
+        if (code != null) {
+            return code;
+        }
+        code = itemCodesById.size();
+        itemCodesById.put(menuItemId, code);
+        if (code == itemCategories.length) {
+            itemCategories = Arrays.copyOf(itemCategories, code * 2);
+        }
+        String name = category == null ? "" : category;
+        Integer categoryCode = categoryCodes.get(name);
+        if (categoryCode == null) {
+            categoryCode = categories.size();
+            categoryCodes.put(name, categoryCode);
+            List<String> grown = new ArrayList<>(categories);
+            grown.add(name);
+            categories = List.copyOf(grown);
+        }
+        itemCategories[code] = categoryCode;
+        return code;
+    }
+}
@@ -11,14 +11,14 @@ import org.springframework.stereotype.Component;
 @Component
 public class StatsScheduler {
 
-    private final StatsCalculationService statsCalculationService;
+    private final DailyStatsService dailyStatsService;
 
-    public StatsScheduler(StatsCalculationService statsCalculationService) {
-        this.statsCalculationService = statsCalculationService;
+    public StatsScheduler(DailyStatsService dailyStatsService) {
+        this.dailyStatsService = dailyStatsService;
     }
 
     @Scheduled(cron = "0 0 0 * * ?")
     public void runDailyStatsJob() {
-        statsCalculationService.calculateStatsFromData(LocalDate.now().minusDays(1));
+        dailyStatsService.refresh(LocalDate.now().minusDays(1));
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.smartOrder.restaurant_managment_app.Models.RevokedToken;
+import com.smartOrder.restaurant_managment_app.Models.Users;
+import com.smartOrder.restaurant_managment_app.repository.RevokedTokenRepository;
+import com.smartOrder.restaurant_managment_app.repository.UserRepo;
+
+/**
+ * Lightweight revocation list for stateless access tokens.
+ * Each token carries the user's token version ("ver" claim) and its own id
+ * ("jti" claim). Revoking a user bumps the stored version and rejects every
+ * older token; revoking a single token (logout) rejects only that token, so
+ * other devices signed in to the same account stay signed in. Both kinds are
+ * stored in the database and every instance polls for new ones, so requests
+ * are checked against memory only. Entries are dropped once every token they
+ * could reject has expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+    /** Overlap between polls, covering clock differences between instances */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final UserRepo userRepo;
+    private final RevokedTokenRepository revokedTokenRepo;
+    private final long tokenLifetimeMs;
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    private volatile Instant lastSync;
+
+    public TokenRevocationService(UserRepo userRepo, RevokedTokenRepository revokedTokenRepo,
+                                  @Value("${jwt.expiration}") long tokenLifetimeMs) {
+        this.userRepo = userRepo;
+        this.revokedTokenRepo = revokedTokenRepo;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+    }
+
+    /**
+     * Reloads revocations that may still reject live tokens after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentRevocations() {
+        syncSince(Instant.now().minusMillis(tokenLifetimeMs));
+    }
+
+    /**
+     * Picks up revocations recorded by other instances since the last poll.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-ms:5000}")
+    public void syncRevocations() {
+        Instant since = lastSync;
+        if (since != null) {
+            syncSince(since.minus(SYNC_OVERLAP));
+        }
+    }
+
+    /**
+     * Invalidates every access token issued to the user so far and saves the user.
+     * @param user The user whose tokens should stop working
+     * @return The saved user
+     */
+    public Users revokeTokens(Users user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        Users savedUser = userRepo.save(user);
+        record(savedUser.getUsername(), savedUser.getTokenVersion());
+        return savedUser;
+    }
+
+    /**
+     * Invalidates a single access token, leaving the user's other tokens valid.
+     * @param tokenId The "jti" claim of the token
+     * @param expiresAt When the token expires
+     */
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        revokedTokenRepo.save(new RevokedToken(tokenId, expiresAt, Instant.now()));
+        revokedTokenIds.put(tokenId, expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Checks whether a token has been revoked, either on its own or with all of its user's tokens.
+     * @param username The token subject
+     * @param tokenVersion The "ver" claim of the token, or null for legacy tokens
+     * @param tokenId The "jti" claim of the token, or null for legacy tokens
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(String username, Integer tokenVersion, String tokenId) {
+        if (tokenId != null && revokedTokenIds.containsKey(tokenId)) {
+            return true;
+        }
+        if (tokenVersion == null) {
+            return false;
+        }
+        Revocation revocation = revocations.get(username);
+        return revocation != null && tokenVersion < revocation.minimumVersion();
+    }
+
+    /**
+     * Drops revocations older than the access token lifetime.
+     */
+    @Scheduled(fixedRate = 600000)
+    public void purgeExpiredRevocations() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - tokenLifetimeMs;
+        revocations.values().removeIf(revocation -> revocation.recordedAt() < cutoff);
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt < now);
+        revokedTokenRepo.deleteExpired(Instant.ofEpochMilli(now));
+    }
+
+    private void syncSince(Instant since) {
+        Instant started = Instant.now();
+        LocalDateTime updatedAfter = LocalDateTime.ofInstant(since, ZoneId.systemDefault());
+        for (Users user : userRepo.findByTokenVersionGreaterThanAndUpdatedAtAfter(0, updatedAfter)) {
+            record(user.getUsername(), user.getTokenVersion());
+        }
+        for (RevokedToken revoked : revokedTokenRepo.findByRevokedAtAfter(since)) {
+            revokedTokenIds.put(revoked.getTokenId(), revoked.getExpiresAt().toEpochMilli());
+        }
+        lastSync = started;
+    }
+
+    private void record(String username, int minimumVersion) {
+        revocations.merge(username, new Revocation(minimumVersion, System.currentTimeMillis()),
+            (current, added) -> added.minimumVersion() >= current.minimumVersion() ? added : current);
+    }
+
+    private record Revocation(int minimumVersion, long recordedAt) {}
+}
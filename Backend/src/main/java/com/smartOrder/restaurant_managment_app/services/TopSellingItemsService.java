@@ -1,18 +1,11 @@
 package com.smartOrder.restaurant_managment_app.services;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import com.smartOrder.restaurant_managment_app.Models.Order;
-import com.smartOrder.restaurant_managment_app.Models.OrderedItems;
-import com.smartOrder.restaurant_managment_app.repository.OrderRepository;
+import com.smartOrder.restaurant_managment_app.repository.ItemDailySalesRepository;
+import com.smartOrder.restaurant_managment_app.services.SalesAggregator.TopSellingItem;
 
 /**
  * Service for calculating top selling menu items
@@ -20,59 +13,21 @@ import com.smartOrder.restaurant_managment_app.repository.OrderRepository;
 @Service
 public class TopSellingItemsService {
     
+    /** Number of items shown on the dashboard */
+    public static final int TOP_ITEMS = 6;
+    
     @Autowired
-    private OrderRepository orderRepo;
+    private ItemDailySalesRepository itemDailySalesRepo;
     
     /**
-     * Calculates top 6 selling items for given date
+     * Calculates a restaurant's top 6 selling items for given date from the daily item sales
      */
-    public List<Map<String, Object>> calculateTopSellingItems(LocalDate date) {
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.plusDays(1).atStartOfDay();
-        List<Order> orders = orderRepo.findByTimeBetween(start, end);
-        
-        Map<String, Map<String, Object>> itemStats = new HashMap<>();
-        
-        for (Order order : orders) {
-            if (order.getItems() == null) continue;
-            
-            for (OrderedItems item : order.getItems()) {
-                String name = item.getMenuItem().getName();
-                
-                BigDecimal itemPrice = BigDecimal.valueOf(item.getMenuItem().getPrice());
-                BigDecimal quantity = BigDecimal.valueOf(item.getQuantity());
-                BigDecimal revenue = itemPrice.multiply(quantity);
-                
-                itemStats.putIfAbsent(name, new HashMap<>(Map.of(
-                        "name", name,
-                        "totalQuantity", 0,
-                        "revenue", BigDecimal.ZERO,
-                        "pricePerItem", itemPrice.setScale(2, RoundingMode.HALF_UP).doubleValue()
-                )));
-                
-                Map<String, Object> stat = itemStats.get(name);
-                stat.put("totalQuantity", (int) stat.get("totalQuantity") + item.getQuantity());
-                stat.put("revenue", ((BigDecimal) stat.get("revenue")).add(revenue));
-            }
-        }
-        
-     
-        List<Map<String, Object>> result = new ArrayList<>();
-        for (Map<String, Object> stat : itemStats.values()) {
-            Map<String, Object> resultStat = new HashMap<>();
-            resultStat.put("name", stat.get("name"));
-            resultStat.put("orders", stat.get("totalQuantity")); 
-            resultStat.put("pricePerItem", stat.get("pricePerItem"));
-            
-            BigDecimal revenue = (BigDecimal) stat.get("revenue");
-            resultStat.put("revenue", revenue.setScale(2, RoundingMode.HALF_UP).doubleValue());
-            
-            result.add(resultStat);
+    public List<TopSellingItem> calculateTopSellingItems(Long restaurantId, LocalDate date) {
+        SalesAggregator aggregator = new SalesAggregator();
+        for (Object[] row : itemDailySalesRepo.sumByMenuItem(restaurantId, date)) {
+            aggregator.addTotals(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                    ((Number) row[3]).longValue(), ((Number) row[4]).longValue());
         }
-        
-        return result.stream()
-                .sorted((a, b) -> Integer.compare((int) b.get("orders"), (int) a.get("orders")))
-                .limit(6)
-                .toList();
+        return aggregator.topByQuantity(TOP_ITEMS);
     }
-}
\ No newline at end of file
+}
@@ -36,6 +36,12 @@ public class UserService {
     @Autowired
     private RestaurantRepository restaurantRepository;
     
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     public Users register(Users user) {
         if (userRepo.findByUsername(user.getUsername()) != null) {
             throw new RuntimeException("Username already exists");
@@ -112,10 +118,16 @@ public class UserService {
         Users user = userRepo.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(active);
-        return userRepo.save(user);
+        Users savedUser = active ? userRepo.save(user) : tokenRevocationService.revokeTokens(user);
+        userDetailsService.evictCachedUser(savedUser.getUsername());
+        return savedUser;
     }
     
     public void deleteUser(int userId) {
+        userRepo.findById(userId).ifPresent(user -> {
+            tokenRevocationService.revokeTokens(user);
+            userDetailsService.evictCachedUser(user.getUsername());
+        });
         userRepo.deleteById(userId);
     }
     
@@ -127,14 +139,21 @@ public class UserService {
             existingUser.setName(userUpdates.getName());
         }
         
+        boolean roleChanged = false;
         if (userUpdates.getRole() != null) {
             if (userUpdates.getRole() == Role.WAITER || userUpdates.getRole() == Role.KITCHEN) {
+                roleChanged = existingUser.getRole() != userUpdates.getRole();
                 existingUser.setRole(userUpdates.getRole());
             } else {
                 throw new RuntimeException("Invalid role assignment");
             }
         }
         
-        return userRepo.save(existingUser);
+        // Roles are embedded in access tokens, so a role change must revoke them
+        Users savedUser = roleChanged
+            ? tokenRevocationService.revokeTokens(existingUser)
+            : userRepo.save(existingUser);
+        userDetailsService.evictCachedUser(savedUser.getUsername());
+        return savedUser;
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.smartOrder.restaurant_managment_app.Controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.smartOrder.restaurant_managment_app.services.MenuImageService;
+
+class UploadControllerTest {
+
+    private static final String BODY = "0123456789abcdefghij";
+
+    @TempDir
+    Path dir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.writeString(dir.resolve("photo.jpg"), BODY, StandardCharsets.US_ASCII);
+        MenuImageService menuImageService = mock(MenuImageService.class);
+        when(menuImageService.resolveUpload("photo.jpg")).thenReturn(file);
+        mockMvc = MockMvcBuilders.standaloneSetup(new UploadController(menuImageService, 49152)).build();
+    }
+
+    @Test
+    void servesWholeFileAsImmutable() throws Exception {
+        mockMvc.perform(get("/uploads/photo.jpg"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void answersMatchingEtagWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/uploads/photo.jpg")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        byte[] body = mockMvc.perform(get("/uploads/photo.jpg").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).isEmpty();
+
+        mockMvc.perform(get("/uploads/photo.jpg").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void servesSingleByteRanges() throws Exception {
+        mockMvc.perform(get("/uploads/photo.jpg").header(HttpHeaders.RANGE, "bytes=5-9"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5))
+            .andExpect(content().string("56789"));
+
+        mockMvc.perform(get("/uploads/photo.jpg").header(HttpHeaders.RANGE, "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("hij"));
+
+        mockMvc.perform(get("/uploads/photo.jpg").header(HttpHeaders.RANGE, "bytes=40-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void servesWholeFileWhenIfRangeIsStale() throws Exception {
+        mockMvc.perform(get("/uploads/photo.jpg")
+                .header(HttpHeaders.RANGE, "bytes=5-9")
+                .header(HttpHeaders.IF_RANGE, "\"stale\""))
+            .andExpect(status().isOk())
+            .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void returnsNotFoundForUnknownFiles() throws Exception {
+        mockMvc.perform(get("/uploads/missing.jpg")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LoginRateLimiterTest {
+
+    @Test
+    void doesNotThrottleSuccessfulLoginsOnASharedAccount() {
+        LoginRateLimiter limiter = new LoginRateLimiter(5, 0.001, 20, 0.001, 100);
+
+        for (int shiftChange = 0; shiftChange < 50; shiftChange++) {
+            assertThat(limiter.tryAcquire("kitchen", "10.0.0.1")).isTrue();
+            limiter.recordSuccess("kitchen", "10.0.0.1");
+        }
+    }
+
+    @Test
+    void throttlesRepeatedFailures() {
+        LoginRateLimiter limiter = new LoginRateLimiter(5, 0.001, 20, 0.001, 100);
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            assertThat(limiter.tryAcquire("Waiter", "10.0.0.1")).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire("waiter", "10.0.0.2")).isFalse();
+    }
+
+    @Test
+    void keepsDrainingBucketsWhenTheTableIsFull() {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 0.001, 1000, 0.001, 3);
+        limiter.tryAcquire("victim", "10.0.0.1");
+        limiter.tryAcquire("victim", "10.0.0.1");
+
+        // Cycling usernames fills the table; new keys are refused instead of evicting the victim
+        assertThat(limiter.tryAcquire("other", "10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("another", "10.0.0.1")).isFalse();
+
+        assertThat(limiter.tryAcquire("victim", "10.0.0.1")).isFalse();
+    }
+}
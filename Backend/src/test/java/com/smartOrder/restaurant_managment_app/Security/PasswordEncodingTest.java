@@ -0,0 +1,69 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.PasswordHashingBusyException;
+
+class PasswordEncodingTest {
+
+    private final SecurityConfig securityConfig = new SecurityConfig(null);
+
+    @Test
+    void rehashesWhenStoredCostDiffersEitherWay() {
+        PasswordEncoder encoder = securityConfig.passwordEncoder(5, 1, 4, 5000);
+
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void rehashesLegacyUnprefixedHashes() {
+        PasswordEncoder encoder = securityConfig.passwordEncoder(5, 1, 4, 5000);
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void rejectsHashesBeyondTheQueueAsBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(slow, 1, 1, 5000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> bounded.encode("running"));
+            callers.submit(() -> bounded.encode("queued"));
+            Thread.sleep(200);
+
+            assertThatThrownBy(() -> bounded.encode("rejected")).isInstanceOf(PasswordHashingBusyException.class);
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            bounded.destroy();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.smartOrder.restaurant_managment_app.Security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.smartOrder.restaurant_managment_app.services.JWTService;
+import io.jsonwebtoken.JwtException;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "TWVuMlNlY3JldEtleTQyMDI1N1NtYXJ0T3JkZXIxU2VjdXJKV1RLZXk2Cg==";
+
+    private JWTService jwtService;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = spy(new JWTService(SECRET, "k1", "", 3_600_000));
+        cache = new VerifiedTokenCache(jwtService, 100);
+    }
+
+    @Test
+    void verifiesRepeatedTokenOnce() {
+        String token = jwtService.generateTokenFromUsername("kitchen-1");
+
+        assertThat(cache.verify(token).username()).isEqualTo("kitchen-1");
+        assertThat(cache.verify(token).username()).isEqualTo("kitchen-1");
+
+        verify(jwtService, times(1)).parseAndValidate(token);
+    }
+
+    @Test
+    void rejectsCachedSignatureOnAnotherPayload() {
+        String token = jwtService.generateTokenFromUsername("kitchen-1");
+        String other = jwtService.generateTokenFromUsername("admin");
+        cache.verify(token);
+
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String forged = other.substring(0, other.lastIndexOf('.') + 1) + signature;
+
+        assertThatThrownBy(() -> cache.verify(forged)).isInstanceOf(JwtException.class);
+        assertThat(cache.verify(token).username()).isEqualTo("kitchen-1");
+    }
+}
@@ -0,0 +1,90 @@
+package com.smartOrder.restaurant_managment_app.WebSockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartOrder.restaurant_managment_app.WebSockets.EventReplayBuffer.ReplayEvent;
+import com.smartOrder.restaurant_managment_app.WebSockets.EventReplayBuffer.ReplayResponse;
+
+class EventReplayBufferTest {
+
+    private static final String TOPIC = "/topic/orders";
+
+    private SimpMessagingTemplate messagingTemplate;
+    private EventReplayBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        buffer = new EventReplayBuffer(messagingTemplate, new ObjectMapper(), 3);
+    }
+
+    @Test
+    void sendsSequenceAndEpochHeaders() {
+        buffer.publish(TOPIC, Map.of("id", 1));
+
+        verify(messagingTemplate).convertAndSend(eq(TOPIC), any(Object.class),
+            eq(Map.<String, Object>of(EventReplayBuffer.SEQUENCE_HEADER, 1L,
+                EventReplayBuffer.EPOCH_HEADER, buffer.epoch())));
+    }
+
+    @Test
+    void replaysTheGapAfterTheLastSequence() {
+        for (int id = 1; id <= 3; id++) {
+            buffer.publish(TOPIC, Map.of("id", id));
+        }
+
+        ReplayResponse response = buffer.replay(TOPIC, buffer.epoch(), 1);
+
+        assertThat(response.complete()).isTrue();
+        assertThat(response.latestSeq()).isEqualTo(3);
+        assertThat(response.events()).extracting(ReplayEvent::seq).containsExactly(2L, 3L);
+        assertThat(response.events().get(0).payload().get("id").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void reportsIncompleteWhenMissedEventsWereEvicted() {
+        for (int id = 1; id <= 5; id++) {
+            buffer.publish(TOPIC, Map.of("id", id));
+        }
+
+        ReplayResponse response = buffer.replay(TOPIC, buffer.epoch(), 1);
+
+        assertThat(response.complete()).isFalse();
+        assertThat(response.events()).extracting(ReplayEvent::seq).containsExactly(3L, 4L, 5L);
+        assertThat(buffer.replay(TOPIC, buffer.epoch(), 2).complete()).isTrue();
+    }
+
+    @Test
+    void reportsIncompleteForASequenceFromBeforeARestart() {
+        EventReplayBuffer beforeRestart = new EventReplayBuffer(messagingTemplate, new ObjectMapper(), 3);
+        beforeRestart.publish(TOPIC, Map.of("id", 1));
+        // After the restart the numbering starts again and seq 1 is a different event
+        buffer.publish(TOPIC, Map.of("id", 2));
+        buffer.publish(TOPIC, Map.of("id", 3));
+
+        ReplayResponse response = buffer.replay(TOPIC, beforeRestart.epoch(), 1);
+
+        assertThat(response.complete()).isFalse();
+        assertThat(response.events()).isEmpty();
+        assertThat(response.epoch()).isEqualTo(buffer.epoch()).isNotEqualTo(beforeRestart.epoch());
+        assertThat(response.latestSeq()).isEqualTo(2);
+        assertThat(buffer.replay("/topic/ready", beforeRestart.epoch(), 4).complete()).isFalse();
+    }
+
+    @Test
+    void completesANewClientOnAnEmptyTopic() {
+        ReplayResponse response = buffer.replay(TOPIC, null, 0);
+
+        assertThat(response.complete()).isTrue();
+        assertThat(response.events()).isEmpty();
+    }
+}
@@ -0,0 +1,26 @@
+package com.smartOrder.restaurant_managment_app.WebSockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartOrder.restaurant_managment_app.WebSockets.EventReplayBuffer.ReplayEvent;
+import com.smartOrder.restaurant_managment_app.WebSockets.EventReplayController.ReplayRequest;
+
+class EventReplayControllerTest {
+
+    @Test
+    void replaysThroughTheBufferWithTheClientsEpoch() {
+        EventReplayBuffer buffer = new EventReplayBuffer(mock(SimpMessagingTemplate.class), new ObjectMapper(), 8);
+        buffer.publish("/topic/ready", Map.of("id", 1));
+        buffer.publish("/topic/ready", Map.of("id", 2));
+        EventReplayController controller = new EventReplayController(buffer);
+
+        assertThat(controller.replay(new ReplayRequest("/topic/ready", buffer.epoch(), 1)).events())
+            .extracting(ReplayEvent::seq).containsExactly(2L);
+        assertThat(controller.replay(new ReplayRequest("/topic/ready", "old-epoch", 1)).complete()).isFalse();
+    }
+}
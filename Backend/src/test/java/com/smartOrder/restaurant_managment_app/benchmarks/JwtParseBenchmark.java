@@ -0,0 +1,69 @@
+package com.smartOrder.restaurant_managment_app.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.smartOrder.restaurant_managment_app.Models.UserPrinciple;
+import com.smartOrder.restaurant_managment_app.Models.Users;
+import com.smartOrder.restaurant_managment_app.Security.VerifiedTokenCache;
+import com.smartOrder.restaurant_managment_app.services.JWTService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Cost of reading the claims of one access token, as JwtFilter does on every
+ * authenticated request. {@code rebuiltKeyAndParser} is the path JWTService
+ * used before keys and the parser were built once: decode the Base64 secret,
+ * derive the HMAC key and build a parser for every token. {@code
+ * parseAndValidate} is the current single pass over the shared parser, and
+ * {@code cachedVerify} is a repeated token served by {@link VerifiedTokenCache}.
+ *
+ * <p>Run with {@code mvn -Pbenchmarks verify -DskipTests -Djmh.args="JwtParse"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "TWVuMlNlY3JldEtleTQyMDI1N1NtYXJ0T3JkZXIxU2VjdXJKV1RLZXk2Cg==";
+
+    private JWTService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JWTService(SECRET, "k1", "", 3_600_000);
+        Users user = new Users();
+        user.setId(42);
+        user.setUsername("kitchen-1");
+        user.setRole(Users.Role.KITCHEN);
+        user.setRestaurantId(7L);
+        token = jwtService.generateToken(new UserPrinciple(user));
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, 10_000);
+    }
+
+    @Benchmark
+    public Claims rebuiltKeyAndParser() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public JWTService.TokenClaims parseAndValidate() {
+        return jwtService.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public JWTService.TokenClaims cachedVerify() {
+        return verifiedTokenCache.verify(token);
+    }
+}
@@ -0,0 +1,115 @@
+package com.smartOrder.restaurant_managment_app.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.smartOrder.restaurant_managment_app.services.SalesAggregator;
+
+/**
+ * Cost of turning a day's order lines into the top-selling items, as
+ * TopSellingItemsService does. {@code boxedMapsAndSort} is the path used
+ * before {@link SalesAggregator}: a map of per-name maps with BigDecimal
+ * revenue, then a full sort of every item. {@code primitiveAggregator} is the
+ * current open-addressing accumulator with a bounded top-K heap.
+ *
+ * <p>Run with {@code mvn -Pbenchmarks verify -DskipTests -Djmh.args="SalesAggregation"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SalesAggregationBenchmark {
+
+    private static final int TOP_ITEMS = 6;
+    private static final String[] CATEGORIES = {"Starters", "Mains", "Desserts", "Drinks", "Sides"};
+
+    @Param("100000")
+    public int lines;
+
+    @Param("300")
+    public int menuItems;
+
+    private long[] itemIds;
+    private String[] names;
+    private String[] categories;
+    private double[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] menuNames = new String[menuItems];
+        double[] menuPrices = new double[menuItems];
+        for (int i = 0; i < menuItems; i++) {
+            menuNames[i] = "Item " + i;
+            menuPrices[i] = (100 + random.nextInt(4900)) / 100.0;
+        }
+        itemIds = new long[lines];
+        names = new String[lines];
+        categories = new String[lines];
+        prices = new double[lines];
+        quantities = new int[lines];
+        for (int line = 0; line < lines; line++) {
+            // Skewed towards low ids, like real menus with a few best sellers
+            int item = (int) (menuItems * Math.pow(random.nextDouble(), 2));
+            itemIds[line] = item + 1;
+            names[line] = menuNames[item];
+            categories[line] = CATEGORIES[item % CATEGORIES.length];
+            prices[line] = menuPrices[item];
+            quantities[line] = 1 + random.nextInt(4);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> boxedMapsAndSort() {
+        Map<String, Map<String, Object>> itemStats = new HashMap<>();
+        for (int line = 0; line < lines; line++) {
+            String name = names[line];
+            BigDecimal itemPrice = BigDecimal.valueOf(prices[line]);
+            BigDecimal revenue = itemPrice.multiply(BigDecimal.valueOf(quantities[line]));
+            itemStats.putIfAbsent(name, new HashMap<>(Map.of(
+                    "name", name,
+                    "totalQuantity", 0,
+                    "revenue", BigDecimal.ZERO,
+                    "pricePerItem", itemPrice.setScale(2, RoundingMode.HALF_UP).doubleValue())));
+            Map<String, Object> stat = itemStats.get(name);
+            stat.put("totalQuantity", (int) stat.get("totalQuantity") + quantities[line]);
+            stat.put("revenue", ((BigDecimal) stat.get("revenue")).add(revenue));
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map<String, Object> stat : itemStats.values()) {
+            Map<String, Object> resultStat = new HashMap<>();
+            resultStat.put("name", stat.get("name"));
+            resultStat.put("orders", stat.get("totalQuantity"));
+            resultStat.put("pricePerItem", stat.get("pricePerItem"));
+            resultStat.put("revenue", ((BigDecimal) stat.get("revenue")).setScale(2, RoundingMode.HALF_UP).doubleValue());
+            result.add(resultStat);
+        }
+        return result.stream()
+                .sorted((a, b) -> Integer.compare((int) b.get("orders"), (int) a.get("orders")))
+                .limit(TOP_ITEMS)
+                .toList();
+    }
+
+    @Benchmark
+    public List<SalesAggregator.TopSellingItem> primitiveAggregator() {
+        SalesAggregator aggregator = new SalesAggregator();
+        for (int line = 0; line < lines; line++) {
+            aggregator.addLine(itemIds[line], names[line], categories[line],
+                    SalesAggregator.toCents(prices[line]), quantities[line]);
+        }
+        return aggregator.topByQuantity(TOP_ITEMS);
+    }
+}
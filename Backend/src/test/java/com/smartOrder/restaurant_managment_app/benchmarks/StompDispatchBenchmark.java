@@ -0,0 +1,156 @@
+package com.smartOrder.restaurant_managment_app.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import com.smartOrder.restaurant_managment_app.WebSockets.WebSocketConfig;
+
+/**
+ * STOMP dispatch with and without the java21 profile.
+ * The client inbound and outbound channels get their executors from
+ * {@link WebSocketConfig}: Spring's default pool of two threads per core, or a
+ * virtual thread per message when {@code spring.threads.virtual.enabled} is set.
+ * Each invocation sends a burst of order updates through the inbound channel to
+ * the simple broker, which fans every update out to all subscribed sessions on
+ * the outbound channel; delivering to a session blocks like a write to a slow
+ * WebSocket client. The score is the time until every session received every update.
+ *
+ * <p>Run with {@code mvn -Pjava21,benchmarks verify -DskipTests -Djmh.args="StompDispatch"};
+ * the virtual variant fails on JDKs older than 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StompDispatchBenchmark {
+
+    private static final String DESTINATION = "/topic/orders";
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"100", "500"})
+    public int sessions;
+
+    @Param({"10"})
+    public int messages;
+
+    @Param({"1"})
+    public int writeMillis;
+
+    private ExecutorSubscribableChannel inboundChannel;
+    private SimpleBrokerMessageHandler broker;
+    private final List<ThreadPoolTaskExecutor> defaultPools = new ArrayList<>();
+    private volatile CountDownLatch delivered;
+
+    @Setup
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        WebSocketConfig config = new WebSocketConfig(virtual);
+        ExposedRegistration inbound = new ExposedRegistration();
+        ExposedRegistration outbound = new ExposedRegistration();
+        try {
+            config.configureClientInboundChannel(inbound);
+            config.configureClientOutboundChannel(outbound);
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21; run with -Pjava21", e);
+        }
+
+        inboundChannel = new ExecutorSubscribableChannel(inbound.executor(this::defaultPool));
+        ExecutorSubscribableChannel outboundChannel =
+            new ExecutorSubscribableChannel(outbound.executor(this::defaultPool));
+        outboundChannel.subscribe(message -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                return;
+            }
+            try {
+                Thread.sleep(writeMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.countDown();
+        });
+
+        broker = new SimpleBrokerMessageHandler(inboundChannel, outboundChannel, new ExecutorSubscribableChannel(),
+            List.of("/topic", "/queue"));
+        // Same as WebSocketConfig.configureMessageBroker
+        broker.setPreservePublishOrder(virtual);
+        broker.start();
+        for (int session = 0; session < sessions; session++) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("session-" + session);
+            broker.handleMessage(message(connect, new byte[0]));
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId("session-" + session);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(DESTINATION);
+            broker.handleMessage(message(subscribe, new byte[0]));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+        defaultPools.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        delivered = new CountDownLatch(sessions * messages);
+        for (int i = 0; i < messages; i++) {
+            SimpMessageHeaderAccessor send = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            send.setDestination(DESTINATION);
+            inboundChannel.send(message(send, ("{\"order\":" + i + ",\"status\":\"READY\"}").getBytes()));
+        }
+        if (!delivered.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Not every session received every update");
+        }
+    }
+
+    /**
+     * Spring's default channel executor, as built when no executor is registered.
+     */
+    private Executor defaultPool() {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 2);
+        pool.setAllowCoreThreadTimeOut(true);
+        pool.initialize();
+        defaultPools.add(pool);
+        return pool;
+    }
+
+    private static Message<byte[]> message(SimpMessageHeaderAccessor headers, byte[] payload) {
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+    }
+
+    /**
+     * Exposes the executor a configurer registered, falling back to the default.
+     */
+    private static final class ExposedRegistration extends ChannelRegistration {
+
+        Executor executor(Supplier<Executor> defaultExecutor) {
+            Consumer<Executor> noCustomizer = executor -> { };
+            return getExecutor(defaultExecutor, noCustomizer);
+        }
+    }
+}
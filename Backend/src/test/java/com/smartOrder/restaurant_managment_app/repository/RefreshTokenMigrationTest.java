@@ -0,0 +1,38 @@
+package com.smartOrder.restaurant_managment_app.repository;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class RefreshTokenMigrationTest {
+
+    @Test
+    void hashesRawTokensEvenWhenTheUniqueKeyExists() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM information_schema"), eq(Integer.class)))
+            .thenReturn(1);
+
+        new RefreshTokenMigration(jdbcTemplate).afterPropertiesSet();
+
+        verify(jdbcTemplate).update(
+            "UPDATE refresh_tokens SET token = TO_BASE64(UNHEX(SHA2(token, 256))) WHERE CHAR_LENGTH(token) = 36");
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"));
+    }
+
+    @Test
+    void skipsAMissingTable() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM information_schema"), eq(Integer.class)))
+            .thenReturn(0);
+
+        new RefreshTokenMigration(jdbcTemplate).afterPropertiesSet();
+
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ColumnarSalesStoreTest {
+
+    private static final LocalDateTime ORDER_TIME = LocalDate.now().atTime(12, 0);
+
+    private PreparedStatement statement;
+    private ColumnarSalesStore store;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        store = new ColumnarSalesStore(jdbcTemplate, true, 30, Long.MAX_VALUE, 100);
+    }
+
+    @Test
+    void picksUpLateCommittedLinesInsideTheSafetyWindowOnce() throws SQLException {
+        ResultSet first = lines(1, 3);
+        ResultSet second = lines(2, 3);
+        when(statement.executeQuery()).thenReturn(first, second);
+
+        store.refresh();
+        store.refresh();
+
+        assertThat(store.breakdown(7L, LocalDate.now(), LocalDate.now(), Set.of()).rows())
+            .singleElement().satisfies(row -> assertThat(row.quantity()).isEqualTo(6));
+        verify(statement, atLeastOnce()).setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /** A result of lines with the given ids, each selling its id in quantity at 1.00 per unit. */
+    private static ResultSet lines(long... ids) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        int[] row = {-1};
+        when(rs.next()).thenAnswer(invocation -> ++row[0] < ids.length);
+        when(rs.getLong(1)).thenAnswer(invocation -> ids[row[0]]);
+        when(rs.getLong(2)).thenReturn(7L);
+        when(rs.getTimestamp(3)).thenReturn(Timestamp.valueOf(ORDER_TIME));
+        when(rs.getLong(4)).thenReturn(11L);
+        when(rs.getString(5)).thenReturn("Mains");
+        when(rs.getInt(6)).thenAnswer(invocation -> (int) ids[row[0]]);
+        when(rs.getLong(7)).thenAnswer(invocation -> ids[row[0]] * 100);
+        return rs;
+    }
+}
@@ -0,0 +1,32 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.smartOrder.restaurant_managment_app.repository.ItemDailySalesRepository;
+import com.smartOrder.restaurant_managment_app.services.DailyItemRollupService.RankedItem;
+
+class DailyItemRollupServiceTest {
+
+    @Test
+    void ranksARangeFromOneGroupedQuery() {
+        ItemDailySalesRepository repo = mock(ItemDailySalesRepository.class);
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2026, 12, 31);
+        when(repo.sumByMenuItemBetween(7L, from, to)).thenReturn(List.of(
+            new Object[] {1L, "Soup", "Starters", 40L, 16_000L},
+            new Object[] {2L, "Steak", "Mains", 90L, 225_000L},
+            new Object[] {3L, "Tea", "Drinks", 40L, 8_000L}));
+
+        DailyItemRollupService.TopItemsReport report = new DailyItemRollupService(repo).topItems(7L, from, to, 2);
+
+        assertThat(report.items()).extracting(RankedItem::name).containsExactly("Steak", "Soup");
+        assertThat(report.items().get(0).revenue()).isEqualTo(2250.0);
+        verify(repo).sumByMenuItemBetween(7L, from, to);
+    }
+}
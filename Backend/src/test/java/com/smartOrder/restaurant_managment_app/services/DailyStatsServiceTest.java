@@ -0,0 +1,66 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.smartOrder.restaurant_managment_app.Models.Stats;
+import com.smartOrder.restaurant_managment_app.repository.StatsSummaryRepository;
+import com.smartOrder.restaurant_managment_app.services.DayStatsAccumulator.OrderContribution;
+
+class DailyStatsServiceTest {
+
+    private StatsCalculationService calculationService;
+    private DailyStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        calculationService = mock(StatsCalculationService.class);
+        service = new DailyStatsService(mock(StatsSummaryRepository.class), calculationService,
+            10, 300_000, 1, 30_000, 30_000);
+    }
+
+    @Test
+    void keepsOrdersRecordedWhileTodayIsReloading() {
+        LocalDate today = LocalDate.now();
+        when(calculationService.accumulate(today)).thenAnswer(invocation -> {
+            DayStatsAccumulator loaded = new DayStatsAccumulator(today);
+            loaded.put(1L, new OrderContribution(1000, 1, 0.0, 0));
+            // Order 2 commits after the read and is recorded before the reload swaps in
+            service.recordOrder(2L, today, new OrderContribution(500, 1, 0.0, 0));
+            return loaded;
+        });
+
+        Stats stats = service.statsFor(today);
+
+        assertThat(stats.getTotalOrders()).isEqualTo(2);
+        assertThat(stats.getTodaysRevenue()).isEqualTo(15.0);
+    }
+
+    @Test
+    void replaysDeletesRecordedWhileTodayIsReloading() {
+        LocalDate today = LocalDate.now();
+        when(calculationService.accumulate(today)).thenAnswer(invocation -> {
+            DayStatsAccumulator loaded = new DayStatsAccumulator(today);
+            loaded.put(1L, new OrderContribution(1000, 1, 0.0, 0));
+            service.recordOrder(1L, today, null);
+            return loaded;
+        });
+
+        assertThat(service.statsFor(today).getTotalOrders()).isZero();
+    }
+
+    @Test
+    void updatesLoadedTotalsInPlace() {
+        LocalDate today = LocalDate.now();
+        when(calculationService.accumulate(today)).thenReturn(new DayStatsAccumulator(today));
+        service.statsFor(today);
+
+        service.recordOrder(1L, today, new OrderContribution(250, 1, 0.0, 0));
+
+        assertThat(service.statsFor(today).getTodaysRevenue()).isEqualTo(2.5);
+    }
+}
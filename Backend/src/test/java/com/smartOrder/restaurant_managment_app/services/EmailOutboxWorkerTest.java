@@ -0,0 +1,174 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.smartOrder.restaurant_managment_app.Models.OutboundEmail;
+import com.smartOrder.restaurant_managment_app.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailOutboxWorkerTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private OutboundEmailRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboundEmailRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void sendsClaimedMessagesOverSmtp() throws Exception {
+        List<OutboundEmail> claimed = List.of(email(1L, "a@example.com"), email(2L, "b@example.com"),
+            email(3L, "c@example.com"));
+        givenClaimed(claimed);
+
+        worker(greenMail.getSmtp().getPort()).drainOutbox();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(received).extracting(MimeMessage::getSubject).containsOnly("Order ready");
+        assertThat(claimed).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(OutboundEmail.Status.SENT);
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getSentAt()).isNotNull();
+            assertThat(email.getClaimToken()).isNull();
+            assertThat(email.getBody()).isNull();
+        });
+        verify(repository).saveAll(claimed);
+        assertThat(meterRegistry.counter("mail.outbox.sent").count()).isEqualTo(3);
+    }
+
+    @Test
+    void claimsDueMessagesWithOneTokenAndLease() {
+        givenClaimed(List.of(email(1L, "a@example.com")));
+
+        worker(greenMail.getSmtp().getPort()).drainOutbox();
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).claim(eq(List.of(1L)), eq(OutboundEmail.Status.PENDING), token.capture(),
+            now.capture(), leaseUntil.capture());
+        verify(repository).findByClaimTokenOrderByIdAsc(token.getValue());
+        assertThat(leaseUntil.getValue()).isEqualTo(now.getValue().plusMinutes(5));
+    }
+
+    @Test
+    void skipsMessagesClaimedByAnotherInstance() {
+        when(repository.findDueIds(eq(OutboundEmail.Status.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(1L, 2L));
+        when(repository.claim(anyList(), any(), anyString(), any(), any())).thenReturn(0);
+
+        worker(greenMail.getSmtp().getPort()).drainOutbox();
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        verify(repository, never()).findByClaimTokenOrderByIdAsc(anyString());
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void schedulesRetryWithBackoffWhenSmtpIsDown() {
+        OutboundEmail email = email(1L, "a@example.com");
+        givenClaimed(List.of(email));
+        LocalDateTime before = LocalDateTime.now();
+
+        worker(greenMail.getSmtp().getPort() + 1).drainOutbox();
+
+        assertThat(email.getStatus()).isEqualTo(OutboundEmail.Status.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getLastError()).isNotBlank();
+        assertThat(email.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        verify(repository).saveAll(List.of(email));
+    }
+
+    @Test
+    void failsMessageAfterLastAttempt() {
+        OutboundEmail email = email(1L, "a@example.com");
+        email.setAttempts(4);
+        givenClaimed(List.of(email));
+
+        worker(greenMail.getSmtp().getPort() + 1).drainOutbox();
+
+        assertThat(email.getStatus()).isEqualTo(OutboundEmail.Status.FAILED);
+        assertThat(meterRegistry.counter("mail.outbox.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void schedulesRetryWhenSenderFailsUnexpectedly() {
+        OutboundEmail email = email(1L, "a@example.com");
+        givenClaimed(List.of(email));
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new IllegalStateException("connection pool closed"))
+            .when(mailSender).send(any(SimpleMailMessage[].class));
+        LocalDateTime before = LocalDateTime.now();
+
+        new EmailOutboxWorker(repository, mailSender, meterRegistry, false, 50, 2, 5, 30_000, 300_000,
+            604_800_000).drainOutbox();
+
+        assertThat(email.getStatus()).isEqualTo(OutboundEmail.Status.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getClaimToken()).isNull();
+        assertThat(email.getLastError()).isEqualTo("connection pool closed");
+        assertThat(email.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        verify(repository).saveAll(List.of(email));
+    }
+
+    @Test
+    void purgesSentMessagesOlderThanRetention() {
+        LocalDateTime before = LocalDateTime.now();
+
+        worker(greenMail.getSmtp().getPort()).purgeSent();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).deleteSentBefore(eq(OutboundEmail.Status.SENT), cutoff.capture());
+        assertThat(cutoff.getValue()).isBetween(before.minusDays(7), LocalDateTime.now().minusDays(7));
+    }
+
+    private void givenClaimed(List<OutboundEmail> claimed) {
+        when(repository.findDueIds(eq(OutboundEmail.Status.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(claimed.stream().map(OutboundEmail::getId).toList());
+        when(repository.claim(anyList(), any(), anyString(), any(), any())).thenReturn(claimed.size());
+        when(repository.findByClaimTokenOrderByIdAsc(anyString())).thenReturn(claimed);
+    }
+
+    private EmailOutboxWorker worker(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpPort);
+        return new EmailOutboxWorker(repository, mailSender, meterRegistry, false, 50, 2, 5, 30_000, 300_000,
+            604_800_000);
+    }
+
+    private static OutboundEmail email(Long id, String recipient) {
+        OutboundEmail email = new OutboundEmail(recipient, "Order ready", "Your order is ready.");
+        email.setId(id);
+        email.setClaimToken("claimed");
+        return email;
+    }
+}
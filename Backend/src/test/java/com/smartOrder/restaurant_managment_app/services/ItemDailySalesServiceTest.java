@@ -0,0 +1,107 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import com.smartOrder.restaurant_managment_app.services.ItemDailySalesService.OrderLineTotals;
+
+class ItemDailySalesServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private ItemDailySalesService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new ItemDailySalesService(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void subtractsLinesWithANegativeSign() {
+        service.apply(LocalDate.of(2025, 1, 15),
+            List.of(new OrderLineTotals(7L, 11L, "Soup", "Starters", 2, 900)), -1);
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO item_daily_sales"),
+            argThat((List<Object[]> batch) -> batch.size() == 1 && batch.get(0)[5].equals(-2L)
+                && batch.get(0)[6].equals(-900L)),
+            any(int[].class));
+    }
+
+    @Test
+    void skipsOrdersWithoutLines() {
+        service.apply(LocalDate.of(2025, 1, 15), List.of(), 1);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @Test
+    void rebuildsOneRestaurantOneMonthPerTransaction() {
+        service.rebuild(7L, LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 3));
+
+        verify(transactionManager, times(3)).commit(any());
+        verify(jdbcTemplate).update(startsWith("DELETE FROM item_daily_sales WHERE restaurant_id = ?"),
+            eq(7L), eq(Date.valueOf("2025-01-15")), eq(Date.valueOf("2025-01-31")));
+        verify(jdbcTemplate).update(startsWith("DELETE"), eq(7L), eq(Date.valueOf("2025-02-01")),
+            eq(Date.valueOf("2025-02-28")));
+        verify(jdbcTemplate).update(startsWith("DELETE"), eq(7L), eq(Date.valueOf("2025-03-01")),
+            eq(Date.valueOf("2025-03-03")));
+        verify(jdbcTemplate).update(contains("AND u.restaurant_id = ?"),
+            eq(Timestamp.valueOf("2025-03-01 00:00:00")), eq(Timestamp.valueOf("2025-03-04 00:00:00")), eq(7L));
+    }
+
+    @Test
+    void skipsBackfillWhileAnotherInstanceHoldsTheLock() {
+        when(jdbcTemplate.queryForObject(eq("SELECT GET_LOCK(?, 0)"), eq(Integer.class), anyString())).thenReturn(0);
+
+        service.backfillIfEmpty();
+
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT EXISTS(SELECT 1 FROM item_daily_sales)"),
+            eq(Boolean.class));
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT RELEASE_LOCK(?)"), eq(Integer.class), anyString());
+    }
+
+    @Test
+    void leavesFilledTableAloneAndReleasesTheLock() {
+        when(jdbcTemplate.queryForObject(eq("SELECT GET_LOCK(?, 0)"), eq(Integer.class), anyString())).thenReturn(1);
+        when(jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM item_daily_sales)", Boolean.class))
+            .thenReturn(true);
+
+        service.backfillIfEmpty();
+
+        verify(jdbcTemplate, never()).query(eq("SELECT MIN(time), MAX(time) FROM orders"), any(RowMapper.class));
+        verify(jdbcTemplate).queryForObject(eq("SELECT RELEASE_LOCK(?)"), eq(Integer.class), anyString());
+    }
+
+    @Test
+    void logsFailedBackfillInsteadOfFailingStartup() {
+        when(jdbcTemplate.queryForObject(eq("SELECT GET_LOCK(?, 0)"), eq(Integer.class), anyString()))
+            .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        assertThatCode(service::backfillIfEmpty).doesNotThrowAnyException();
+    }
+}
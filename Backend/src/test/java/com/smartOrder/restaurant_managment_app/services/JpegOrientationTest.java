@@ -0,0 +1,88 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JpegOrientationTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsOrientationInBothByteOrders() throws Exception {
+        assertThat(JpegOrientation.read(jpegWithOrientation(6, ByteOrder.BIG_ENDIAN))).isEqualTo(6);
+        assertThat(JpegOrientation.read(jpegWithOrientation(8, ByteOrder.LITTLE_ENDIAN))).isEqualTo(8);
+    }
+
+    @Test
+    void treatsFilesWithoutExifAsUpright() throws Exception {
+        Path plain = dir.resolve("plain.jpg");
+        Files.write(plain, jpeg());
+        Path text = dir.resolve("notes.txt");
+        Files.writeString(text, "not an image");
+
+        assertThat(JpegOrientation.read(plain)).isEqualTo(JpegOrientation.NORMAL);
+        assertThat(JpegOrientation.read(text)).isEqualTo(JpegOrientation.NORMAL);
+    }
+
+    @Test
+    void turnsRotatedPixelsUpright() {
+        BufferedImage stored = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        stored.setRGB(0, 0, Color.RED.getRGB());
+        stored.setRGB(1, 0, Color.BLUE.getRGB());
+
+        BufferedImage upright = new BufferedImage(1, 2, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = upright.createGraphics();
+        graphics.drawImage(stored, JpegOrientation.transform(6, 2, 1), null);
+        graphics.dispose();
+
+        assertThat(JpegOrientation.swapsDimensions(6)).isTrue();
+        assertThat(upright.getRGB(0, 0)).isEqualTo(Color.RED.getRGB());
+        assertThat(upright.getRGB(0, 1)).isEqualTo(Color.BLUE.getRGB());
+    }
+
+    private Path jpegWithOrientation(int orientation, ByteOrder order) throws Exception {
+        ByteBuffer tiff = ByteBuffer.allocate(8 + 2 + 12 + 4).order(order);
+        tiff.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+
+        byte[] exif = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+        int length = 2 + exif.length + tiff.capacity();
+        byte[] image = jpeg();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(image, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.write(exif);
+        out.write(tiff.array());
+        out.write(image, 2, image.length - 2);
+
+        Path file = dir.resolve("photo-" + orientation + ".jpg");
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    private static byte[] jpeg() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,176 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.InvalidImageException;
+import com.smartOrder.restaurant_managment_app.Controllers.CustomExceptions.InvalidMenuImportException;
+import com.smartOrder.restaurant_managment_app.services.MenuImageService.ImageVariants;
+
+class MenuBulkServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSource dataSource;
+    private MenuImageService menuImageService;
+    private MenuBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        dataSource = mock(DataSource.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        menuImageService = mock(MenuImageService.class);
+        service = new MenuBulkService(jdbcTemplate, new ObjectMapper(), menuImageService, 100, 2000, 500, 64);
+    }
+
+    @Test
+    void importsValidCsvRows() throws Exception {
+        int imported = service.importItems(csv("name,price,category,available\nSoup,4.5,Starters,TRUE\n"),
+            true, 1, Map.of());
+
+        assertThat(imported).isEqualTo(1);
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @Test
+    void importsCsvWithByteOrderMarkAndEscapedFormulas() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            rows.addAll(invocation.getArgument(1));
+            return new int[0];
+        });
+
+        service.importItems(csv("\uFEFFname,price,category\n'=Soup,4.5,'@Starters\n"), true, 1, Map.of());
+
+        assertThat(rows).singleElement()
+            .satisfies(row -> assertThat(row).startsWith("=Soup", null, 4.5, "@Starters"));
+    }
+
+    @Test
+    void escapesFormulaLikeTextInCsvExport() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(1)).thenReturn("=HYPERLINK(\"http://x\")");
+        when(resultSet.getString(2)).thenReturn("-spicy");
+        when(resultSet.getDouble(3)).thenReturn(4.5);
+        when(resultSet.getString(4)).thenReturn("+Mains");
+        when(resultSet.getBoolean(5)).thenReturn(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportCsv(1, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith(
+            "\"'=HYPERLINK(\"\"http://x\"\")\",'-spicy,4.5,'+Mains,true,\r\n");
+    }
+
+    @Test
+    void rejectsAvailableValuesOtherThanTrueOrFalse() {
+        assertThatThrownBy(() -> service.importItems(csv("name,price,category,available\nSoup,4.5,Starters,yes\n"),
+                true, 1, Map.of()))
+            .isInstanceOf(InvalidMenuImportException.class)
+            .hasMessageContaining("Row 1: available");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @Test
+    void rejectsMalformedJsonAsInvalidImport() {
+        String json = "[{\"name\":\"Soup\",\"price\":4.5,\"category\":\"Starters\"},{\"name\":";
+
+        assertThatThrownBy(() -> service.importItems(csv(json), false, 1, Map.of()))
+            .isInstanceOf(InvalidMenuImportException.class)
+            .hasMessageStartingWith("Row 2:");
+    }
+
+    @Test
+    void discardsStoredImagesWhenArchiveIsRejected() throws Exception {
+        ImageVariants stored = new ImageVariants("/uploads/a.jpg", "/uploads/a-medium.jpg", "/uploads/a-thumb.jpg");
+        when(menuImageService.store(any(InputStream.class)))
+            .thenReturn(stored)
+            .thenThrow(new InvalidImageException("Unsupported image type"));
+
+        assertThatThrownBy(() -> service.storeImages(zip("a.jpg", "b.txt")))
+            .isInstanceOf(InvalidImageException.class)
+            .hasMessage("b.txt: Unsupported image type");
+        verify(menuImageService).deleteIfUnused("/uploads/a.jpg");
+    }
+
+    @Test
+    void unpacksItemsFileAndImagesFromOneArchive() throws Exception {
+        ImageVariants stored = new ImageVariants("/uploads/a.jpg", "/uploads/a-medium.jpg", "/uploads/a-thumb.jpg");
+        when(menuImageService.store(any(InputStream.class))).thenReturn(stored);
+
+        MenuBulkService.ImportArchive archive = service.unpackArchive(zip("photos/a.jpg", "items.csv"));
+        try {
+            assertThat(archive.csv()).isTrue();
+            assertThat(archive.images()).containsExactly(Map.entry("a.jpg", stored));
+            assertThat(Files.readString(archive.items())).isEqualTo("items.csv");
+        } finally {
+            Files.deleteIfExists(archive.items());
+        }
+    }
+
+    @Test
+    void rejectsOversizedItemsFileAndDiscardsImages() throws Exception {
+        ImageVariants stored = new ImageVariants("/uploads/a.jpg", "/uploads/a-medium.jpg", "/uploads/a-thumb.jpg");
+        when(menuImageService.store(any(InputStream.class))).thenReturn(stored);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry("a.jpg"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("items.json"));
+            out.write(new byte[65]);
+            out.closeEntry();
+        }
+
+        assertThatThrownBy(() -> service.unpackArchive(new ByteArrayInputStream(bytes.toByteArray())))
+            .isInstanceOf(InvalidMenuImportException.class)
+            .hasMessage("Items file exceeds 64 bytes");
+        verify(menuImageService).deleteIfUnused("/uploads/a.jpg");
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream zip(String... names) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (String name : List.of(names)) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write(name.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
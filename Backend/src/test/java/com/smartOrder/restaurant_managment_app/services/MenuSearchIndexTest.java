@@ -0,0 +1,80 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.smartOrder.restaurant_managment_app.services.MenuSearchIndex.CategoryFacet;
+import com.smartOrder.restaurant_managment_app.services.MenuSearchIndex.SearchResult;
+import com.smartOrder.restaurant_managment_app.services.MenuSnapshotService.PublicMenuItem;
+
+class MenuSearchIndexTest {
+
+    private final MenuSearchIndex index = MenuSearchIndex.build(List.of(
+        item(1L, "Tomato Soup", "Starters", "Roasted tomatoes and basil"),
+        item(2L, "Chicken Curry", "Mains", "Mild curry with tomato"),
+        item(3L, "Crème Brûlée", "Desserts", "Vanilla custard"),
+        item(4L, "Tom Yum", "Soups", "Hot and sour prawn soup"),
+        item(5L, "Tomahawk Steak", "Mains", null)));
+
+    @Test
+    void findsEveryTermStartingWithThePrefix() {
+        SearchResult result = index.search("tom", null, 10);
+
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(ids(result)).containsExactlyInAnyOrder(1L, 2L, 4L, 5L);
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatchesAndExactTermsFirst() {
+        SearchResult result = index.search("tom", null, 10);
+
+        // Tom Yum is the only exact name term; Chicken Curry only mentions tomato in its description
+        assertThat(ids(result)).containsExactly(4L, 1L, 5L, 2L);
+    }
+
+    @Test
+    void matchesPrefixesPastTheEndOfTheTermArray() {
+        assertThat(index.search("zzz", null, 10).total()).isZero();
+        assertThat(ids(index.search("yum", null, 10))).containsExactly(4L);
+        assertThat(ids(index.search("anchovy", null, 10))).isEmpty();
+    }
+
+    @Test
+    void requiresEveryQueryTermToMatch() {
+        assertThat(ids(index.search("tomato soup", null, 10))).containsExactly(1L);
+        assertThat(ids(index.search("soup curry", null, 10))).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertThat(ids(index.search("CREME brul", null, 10))).containsExactly(3L);
+    }
+
+    @Test
+    void countsFacetsOverAllMatchesBeforeTheCategoryFilter() {
+        SearchResult result = index.search("tom", "mains", 10);
+
+        assertThat(ids(result)).containsExactly(5L, 2L);
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.facets()).containsExactlyInAnyOrder(
+            new CategoryFacet("Starters", 1), new CategoryFacet("Mains", 2), new CategoryFacet("Soups", 1));
+    }
+
+    @Test
+    void blankQueryMatchesEveryItemInMenuOrderUpToTheLimit() {
+        SearchResult result = index.search("  ", null, 2);
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(ids(result)).containsExactly(1L, 2L);
+        assertThat(result.facets()).hasSize(4);
+    }
+
+    private static List<Long> ids(SearchResult result) {
+        return result.items().stream().map(PublicMenuItem::id).toList();
+    }
+
+    private static PublicMenuItem item(Long id, String name, String category, String description) {
+        return new PublicMenuItem(id, name, description, 10.0, category, null, null, null, true);
+    }
+}
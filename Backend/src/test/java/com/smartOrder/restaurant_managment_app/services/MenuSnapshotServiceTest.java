@@ -0,0 +1,125 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartOrder.restaurant_managment_app.Models.MenuItems;
+import com.smartOrder.restaurant_managment_app.repository.MenuItemRepository;
+import com.smartOrder.restaurant_managment_app.repository.RestaurantRepository;
+
+class MenuSnapshotServiceTest {
+
+    private MenuItemRepository menuItemRepo;
+    private RestaurantRepository restaurantRepo;
+    private final AtomicLong menuVersion = new AtomicLong(4);
+    private MenuSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        menuItemRepo = mock(MenuItemRepository.class);
+        // Restaurant 7's persisted menu version, shared by every instance
+        restaurantRepo = mock(RestaurantRepository.class);
+        when(restaurantRepo.incrementMenuVersion(7L)).thenAnswer(invocation -> {
+            menuVersion.incrementAndGet();
+            return 1;
+        });
+        when(restaurantRepo.findMenuVersion(7L)).thenAnswer(invocation -> menuVersion.get());
+        when(restaurantRepo.findMenuVersions())
+            .thenAnswer(invocation -> List.<Object[]>of(new Object[] {7L, menuVersion.get()}));
+        service = new MenuSnapshotService(menuItemRepo, restaurantRepo, new ObjectMapper());
+    }
+
+    @Test
+    void keepsCombinedSnapshotUntilAMenuChanges() {
+        when(menuItemRepo.findByAvailableTrue()).thenReturn(List.of(item(1L, "Soup", "Starters", true)));
+
+        MenuSnapshotService.MenuSnapshot first = service.getAllRestaurantsSnapshot();
+        assertThat(service.getAllRestaurantsSnapshot()).isSameAs(first);
+
+        service.rebuild(null);
+        assertThat(service.getAllRestaurantsSnapshot()).isNotSameAs(first);
+        verify(menuItemRepo, times(2)).findByAvailableTrue();
+    }
+
+    @Test
+    void doesNotKeepCombinedSnapshotLoadedDuringAChange() {
+        MenuItems soup = item(1L, "Soup", "Starters", true);
+        when(menuItemRepo.findByAvailableTrue()).thenAnswer(invocation -> {
+            // An admin saves a menu change while this reader is loading
+            service.rebuild(null);
+            return List.of(soup);
+        }).thenReturn(List.of(soup, item(2L, "Salad", "Starters", true)));
+
+        assertThat(service.getAllRestaurantsSnapshot().items()).hasSize(1);
+        assertThat(service.getAllRestaurantsSnapshot().items()).hasSize(2);
+    }
+
+    @Test
+    void patchesAvailabilityInMenuOrderAndBumpsVersion() {
+        when(menuItemRepo.findByAdminRestaurantIdAndAvailableTrueOrderByCategoryAscIdAsc(7L))
+            .thenReturn(List.of(item(1L, "Cake", "Desserts", true), item(3L, "Soup", "Starters", true)));
+        MenuSnapshotService.MenuSnapshot initial = service.getSnapshot(7L);
+
+        long version = service.applyAvailability(7L, item(2L, "Pie", "Desserts", true));
+
+        MenuSnapshotService.MenuSnapshot patched = service.getSnapshot(7L);
+        assertThat(version).isEqualTo(initial.version() + 1);
+        assertThat(patched.version()).isEqualTo(version);
+        assertThat(patched.items()).extracting(MenuSnapshotService.PublicMenuItem::id).containsExactly(1L, 2L, 3L);
+        verify(menuItemRepo, times(1)).findByAdminRestaurantIdAndAvailableTrueOrderByCategoryAscIdAsc(7L);
+    }
+
+    @Test
+    void tagsTheSameMenuAlikeOnEveryInstanceAndAcrossRestarts() {
+        when(menuItemRepo.findByAdminRestaurantIdAndAvailableTrueOrderByCategoryAscIdAsc(7L))
+            .thenReturn(List.of(item(1L, "Soup", "Starters", true)));
+        MenuSnapshotService otherInstance = new MenuSnapshotService(menuItemRepo, restaurantRepo, new ObjectMapper());
+
+        MenuSnapshotService.MenuSnapshot first = service.getSnapshot(7L);
+        assertThat(otherInstance.getSnapshot(7L).etag()).isEqualTo(first.etag());
+        service.rebuild(7L);
+        MenuSnapshotService.MenuSnapshot second = service.getSnapshot(7L);
+
+        assertThat(first.version()).isEqualTo(4);
+        assertThat(second.version()).isEqualTo(5);
+        assertThat(first.etag()).startsWith("\"4-");
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void rebuildsSnapshotsMadeStaleByAnotherInstance() {
+        when(menuItemRepo.findByAdminRestaurantIdAndAvailableTrueOrderByCategoryAscIdAsc(7L))
+            .thenReturn(List.of(item(1L, "Soup", "Starters", true)))
+            .thenReturn(List.of(item(1L, "Soup", "Starters", true), item(2L, "Salad", "Starters", true)));
+        when(menuItemRepo.findByAvailableTrue()).thenReturn(List.of(item(1L, "Soup", "Starters", true)));
+        service.getSnapshot(7L);
+        MenuSnapshotService.MenuSnapshot combined = service.getAllRestaurantsSnapshot();
+
+        // Another instance saves a menu change
+        menuVersion.incrementAndGet();
+        service.syncVersions();
+
+        MenuSnapshotService.MenuSnapshot synced = service.getSnapshot(7L);
+        assertThat(synced.version()).isEqualTo(5);
+        assertThat(synced.items()).hasSize(2);
+        assertThat(service.getAllRestaurantsSnapshot()).isNotSameAs(combined);
+    }
+
+    private static MenuItems item(Long id, String name, String category, boolean available) {
+        MenuItems item = new MenuItems();
+        item.setId(id);
+        item.setName(name);
+        item.setCategory(category);
+        item.setPrice(5.0);
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,131 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import com.smartOrder.restaurant_managment_app.Models.Order;
+import com.smartOrder.restaurant_managment_app.repository.OrderRepository;
+import com.smartOrder.restaurant_managment_app.services.ItemDailySalesService.OrderLineTotals;
+
+class OrderServiceTest {
+
+    private OrderRepository orderRepository;
+    private DailyStatsService dailyStatsService;
+    private ItemDailySalesService itemDailySalesService;
+    private PlatformTransactionManager transactionManager;
+    private OrderService service;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        dailyStatsService = mock(DailyStatsService.class);
+        itemDailySalesService = mock(ItemDailySalesService.class);
+        when(itemDailySalesService.orderLines(anyLong())).thenReturn(List.of());
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new OrderService();
+        ReflectionTestUtils.setField(service, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(service, "dailyStatsService", dailyStatsService);
+        ReflectionTestUtils.setField(service, "itemDailySalesService", itemDailySalesService);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+    }
+
+    @Test
+    void savesPastDaySummaryInItsOwnTransaction() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(orderRepository.findById(9L)).thenReturn(Optional.of(order(9L, yesterday.atTime(12, 0))));
+
+        service.deleteOrder(9L);
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(dailyStatsService).recordOrder(9L, yesterday, null);
+        verify(dailyStatsService).refresh(yesterday);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void keepsTheOrderWriteWhenStatsFail() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(orderRepository.findById(9L)).thenReturn(Optional.of(order(9L, yesterday.atTime(12, 0))));
+        when(dailyStatsService.refresh(eq(yesterday))).thenThrow(new IllegalStateException("database down"));
+
+        assertThatCode(() -> service.deleteOrder(9L)).doesNotThrowAnyException();
+
+        verify(orderRepository).deleteById(9L);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void movesItemSalesFromTheStoredDayWhenTheOrderTimeChanges() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate today = LocalDate.now();
+        Order order = order(9L, today.atTime(12, 0));
+        List<OrderLineTotals> before = List.of(line(2));
+        List<OrderLineTotals> after = List.of(line(3));
+        when(itemDailySalesService.orderDate(9L)).thenReturn(yesterday);
+        when(itemDailySalesService.orderLines(9L)).thenReturn(before, after);
+        when(orderRepository.saveAndFlush(order)).thenReturn(order);
+
+        service.updateOrder(order);
+
+        verify(itemDailySalesService).apply(yesterday, before, -1);
+        verify(itemDailySalesService).apply(today, after, 1);
+        verify(dailyStatsService).recordOrder(9L, yesterday, null);
+    }
+
+    @Test
+    void removesLinesWhoseQuantityDroppedToZero() {
+        LocalDate today = LocalDate.now();
+        Order order = order(9L, today.atTime(12, 0));
+        List<OrderLineTotals> before = List.of(line(2));
+        when(itemDailySalesService.orderDate(9L)).thenReturn(today);
+        when(itemDailySalesService.orderLines(9L)).thenReturn(before, List.of());
+        when(orderRepository.saveAndFlush(order)).thenReturn(order);
+
+        service.updateOrder(order);
+
+        verify(itemDailySalesService).apply(today, before, -1);
+        verify(itemDailySalesService).apply(today, List.of(), 1);
+    }
+
+    @Test
+    void subtractsDeletedOrderLinesFromItsDay() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        List<OrderLineTotals> lines = List.of(line(2));
+        when(orderRepository.findById(9L)).thenReturn(Optional.of(order(9L, yesterday.atTime(12, 0))));
+        when(itemDailySalesService.orderLines(9L)).thenReturn(lines);
+
+        service.deleteOrder(9L);
+
+        verify(itemDailySalesService).apply(yesterday, lines, -1);
+    }
+
+    private static OrderLineTotals line(long quantity) {
+        return new OrderLineTotals(7L, 11L, "Soup", "Starters", quantity, quantity * 450);
+    }
+
+    private static Order order(Long id, LocalDateTime time) {
+        Order order = new Order();
+        order.setId(id);
+        order.setTime(time);
+        return order;
+    }
+}
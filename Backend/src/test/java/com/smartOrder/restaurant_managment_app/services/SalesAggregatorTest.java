@@ -0,0 +1,90 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import com.smartOrder.restaurant_managment_app.services.SalesAggregator.ItemSales;
+
+class SalesAggregatorTest {
+
+    @Test
+    void ranksByQuantityThenRevenueThenId() {
+        SalesAggregator aggregator = new SalesAggregator();
+        aggregator.addLine(5, "Soup", "Starters", 400, 3);
+        aggregator.addLine(3, "Tea", "Drinks", 200, 3);
+        aggregator.addLine(4, "Cake", "Desserts", 200, 3);
+        aggregator.addLine(1, "Steak", "Mains", 2500, 5);
+        aggregator.addLine(2, "Water", "Drinks", 100, 1);
+
+        assertThat(aggregator.topItemSales(4)).extracting(ItemSales::menuItemId).containsExactly(1L, 5L, 3L, 4L);
+        assertThat(aggregator.topByQuantity(2)).extracting(SalesAggregator.TopSellingItem::name)
+            .containsExactly("Steak", "Soup");
+    }
+
+    @Test
+    void handlesKLargerThanItemsAndNonPositiveK() {
+        SalesAggregator aggregator = new SalesAggregator();
+        aggregator.addLine(1, "Soup", "Starters", 400, 1);
+        aggregator.addLine(2, "Tea", "Drinks", 200, 2);
+
+        assertThat(aggregator.topItemSales(10)).extracting(ItemSales::menuItemId).containsExactly(2L, 1L);
+        assertThat(aggregator.topItemSales(0)).isEmpty();
+        assertThat(aggregator.topItemSales(-1)).isEmpty();
+        assertThat(new SalesAggregator().topItemSales(6)).isEmpty();
+    }
+
+    @Test
+    void matchesFullSortOnRandomLines() {
+        Random random = new Random(7);
+        SalesAggregator aggregator = new SalesAggregator();
+        for (int line = 0; line < 100_000; line++) {
+            long id = 1 + random.nextInt(500);
+            aggregator.addLine(id, "Item " + id, "Category " + id % 7, 100 + id, 1 + random.nextInt(3));
+        }
+        List<ItemSales> sorted = aggregator.items().stream()
+            .sorted(Comparator.comparingLong(ItemSales::quantity).reversed()
+                .thenComparing(Comparator.comparingLong(ItemSales::revenueCents).reversed())
+                .thenComparingLong(ItemSales::menuItemId))
+            .toList();
+
+        assertThat(aggregator.topItemSales(25)).containsExactlyElementsOf(sorted.subList(0, 25));
+    }
+
+    @Test
+    void keepsEveryItemAcrossTableGrowth() {
+        SalesAggregator aggregator = new SalesAggregator();
+        // Ids spaced by a power of two collide often in a masked table
+        for (int round = 0; round < 3; round++) {
+            for (long i = 0; i < 1000; i++) {
+                aggregator.addLine(i << 16, "Item " + i, "Mains", 150, 1);
+            }
+        }
+
+        assertThat(aggregator.size()).isEqualTo(1000);
+        List<ItemSales> items = aggregator.items();
+        assertThat(items).hasSize(1000);
+        for (int i = 0; i < 1000; i++) {
+            ItemSales item = items.get(i);
+            assertThat(item.menuItemId()).isEqualTo((long) i << 16);
+            assertThat(item.name()).isEqualTo("Item " + i);
+            assertThat(item.quantity()).isEqualTo(3);
+            assertThat(item.revenueCents()).isEqualTo(450);
+        }
+        assertThat(aggregator.revenueByCategory()).containsEntry("Mains", 4500.0);
+    }
+
+    @Test
+    void derivesUnitPriceFromRolledUpTotals() {
+        SalesAggregator aggregator = new SalesAggregator();
+        aggregator.addTotals(9, "Pizza", "Mains", 4, 4800);
+        aggregator.addTotals(9, "Pizza", "Mains", 1, 1200);
+
+        SalesAggregator.TopSellingItem top = aggregator.topByQuantity(1).get(0);
+        assertThat(top.orders()).isEqualTo(5);
+        assertThat(top.pricePerItem()).isEqualTo(12.0);
+        assertThat(top.revenue()).isEqualTo(60.0);
+    }
+}
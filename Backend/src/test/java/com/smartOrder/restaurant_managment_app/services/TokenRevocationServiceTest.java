@@ -0,0 +1,76 @@
+package com.smartOrder.restaurant_managment_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.smartOrder.restaurant_managment_app.Models.RevokedToken;
+import com.smartOrder.restaurant_managment_app.Models.Users;
+import com.smartOrder.restaurant_managment_app.repository.RevokedTokenRepository;
+import com.smartOrder.restaurant_managment_app.repository.UserRepo;
+
+class TokenRevocationServiceTest {
+
+    private UserRepo userRepo;
+    private RevokedTokenRepository revokedTokenRepo;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = mock(UserRepo.class);
+        revokedTokenRepo = mock(RevokedTokenRepository.class);
+        when(userRepo.findByTokenVersionGreaterThanAndUpdatedAtAfter(anyInt(), any())).thenReturn(List.of());
+        when(revokedTokenRepo.findByRevokedAtAfter(any())).thenReturn(List.of());
+        service = new TokenRevocationService(userRepo, revokedTokenRepo, 86_400_000);
+        service.loadRecentRevocations();
+    }
+
+    @Test
+    void revokingOneTokenLeavesOtherDevicesSignedIn() {
+        service.revokeToken("device-a", Instant.now().plusSeconds(3600));
+
+        assertThat(service.isRevoked("kitchen", 0, "device-a")).isTrue();
+        assertThat(service.isRevoked("kitchen", 0, "device-b")).isFalse();
+        verify(revokedTokenRepo).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revokingUserRejectsOlderVersionsOnly() {
+        Users user = new Users();
+        user.setUsername("waiter");
+        when(userRepo.save(user)).thenReturn(user);
+
+        service.revokeTokens(user);
+
+        assertThat(service.isRevoked("waiter", 0, "any")).isTrue();
+        assertThat(service.isRevoked("waiter", 1, "any")).isFalse();
+        assertThat(service.isRevoked("waiter", null, null)).isFalse();
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherInstances() {
+        when(revokedTokenRepo.findByRevokedAtAfter(any())).thenReturn(
+            List.of(new RevokedToken("elsewhere", Instant.now().plusSeconds(3600), Instant.now())));
+
+        service.syncRevocations();
+
+        assertThat(service.isRevoked("admin", 3, "elsewhere")).isTrue();
+    }
+
+    @Test
+    void purgeForgetsExpiredTokens() {
+        service.revokeToken("expired", Instant.now().minusSeconds(1));
+
+        service.purgeExpiredRevocations();
+
+        assertThat(service.isRevoked("admin", 0, "expired")).isFalse();
+        verify(revokedTokenRepo).deleteExpired(any());
+    }
+}
@@ -37,7 +37,11 @@ export function AuthProvider({ children }) {
     try {
       const endpoint =
         user?.role === "ADMIN" ? "/logout" : "/api/employee/logout";
-      await api.post(endpoint);
+      const storedRefreshToken =
+        user?.role === "ADMIN"
+          ? localStorage.getItem("refreshToken")
+          : localStorage.getItem("employeeRefreshToken");
+      await api.post(endpoint, { refreshToken: storedRefreshToken });
     } catch (error) {
       // Silent error handling
     }
@@ -222,7 +222,9 @@ export function KitchenDashboard() {
   const handleLogout = async () => {
     try {
       if (!isAdminView) {
-        await api.post("/api/employee/logout");
+        await api.post("/api/employee/logout", {
+          refreshToken: localStorage.getItem("employeeRefreshToken"),
+        });
         localStorage.removeItem("employeeData");
         localStorage.removeItem("employeeAccessToken");
         localStorage.removeItem("employeeRefreshToken");
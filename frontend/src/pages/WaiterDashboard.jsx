@@ -368,7 +368,9 @@ export function WaiterDashboard() {
     }
 
     try {
-      await api.post("/api/employee/logout");
+      await api.post("/api/employee/logout", {
+        refreshToken: localStorage.getItem("employeeRefreshToken"),
+      });
       localStorage.removeItem("employeeData");
       localStorage.removeItem("employeeRefreshToken");
       localStorage.removeItem("employeeAccessToken");